@@ -0,0 +1,35 @@
+require File.expand_path('record', File.dirname(__FILE__))
+
+BenchTestHelper.generate_records
+
+BenchTestHelper.gc
+
+# compare (all columns) result mapping e.g. between releases using ARJDBC_VERSION
+Benchmark.bmbm do |x|
+
+  connection = BenchRecord.connection
+  jdbc_connection = connection.raw_connection
+  total = BenchRecord.count
+  sql = 'SELECT * FROM bench_records'
+
+  x.report("connection.exec_query('#{sql}') #{total} rows [#{TIMES}x]") do
+    TIMES.times do
+      connection.exec_query(sql)
+    end
+  end
+
+  x.report("raw_connection.execute_query_raw('#{sql}') #{total} rows [#{TIMES}x]") do
+    TIMES.times do
+      jdbc_connection.execute_query_raw(sql)
+    end
+  end
+
+  x.report("raw_connection.execute_query_raw('#{sql}') { ... } #{total} rows [#{TIMES}x]") do
+    TIMES.times do
+      jdbc_connection.execute_query_raw(sql) { |*row| row }
+    end
+  end
+
+end
+
+puts "\n"
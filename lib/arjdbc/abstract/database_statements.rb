@@ -1,5 +1,7 @@
 # frozen_string_literal: true
 
+require 'concurrent/atomic/semaphore'
+
 module ArJdbc
   module Abstract
 
@@ -14,7 +16,20 @@ module ArJdbc
           log(sql, name) { @connection.execute_insert(sql) }
         else
           log(sql, name, binds) do
-            @connection.execute_insert(sql, binds)
+            @connection.execute_insert(sql, binds, write_statement_cache_key(sql))
+          end
+        end
+      end
+
+      # Executes an INSERT returning the generated primary key (an Integer for
+      # integer keys) without building a result for the generated keys.
+      # @return the generated key or `nil`
+      def exec_insert_pk(sql, name = nil, binds = NO_BINDS, pk = nil, sequence_name = nil)
+        if without_prepared_statement?(binds)
+          log(sql, name) { @connection.execute_insert_pk(sql) }
+        else
+          log(sql, name, binds) do
+            @connection.execute_insert_pk(sql, binds, write_statement_cache_key(sql))
           end
         end
       end
@@ -27,25 +42,170 @@ module ArJdbc
         else
           log(sql, name, binds) do
             # this is different from normal AR that always caches
-            cached_statement = fetch_cached_statement(sql) if prepare && @jdbc_statement_cache_enabled
-            @connection.execute_prepared_query(sql, binds, cached_statement)
+            # statements are cached by the connection (under the given key)
+            cache_key = statement_cache_key(sql) if prepare && @jdbc_statement_cache_enabled
+            @connection.execute_prepared_query(sql, binds, cache_key)
           end
         end
       end
 
+      # Executes several statements, in a single round-trip where the driver
+      # supports multiple statements (the `multi_statements` config).
+      # @param sqls [Array<String>, String] statements (or a multi-statement SQL)
+      # @return [Array] an `ActiveRecord::Result` for each statement returning
+      #   rows and the update count for others
+      def exec_multi(sqls, name = nil)
+        sql = sqls.is_a?(Array) ? sqls.join(";\n") : sqls
+        log(sql, name) { @connection.execute_multi(sqls) }
+      end
+
+      # Statements executed within the block get cancelled once they run longer
+      # than the given timeout (in seconds), overrides the `statement_timeout`
+      # configured for the connection (`nil` for no timeout).
+      def with_statement_timeout(timeout, &block)
+        @connection.with_statement_timeout(timeout, &block)
+      end
+
+      # Executes the query in the background, on a separate connection checked
+      # out from the pool (so independent queries can run concurrently).
+      # At most `pool.size - 1` queries run in the background at a time (this
+      # connection being in use) and only while the pool has a connection
+      # available right away, others (as well as all queries when there's no
+      # pool) get executed on this connection.
+      # @return [ActiveRecord::ConnectionAdapters::JdbcConnection::QueryFuture]
+      #   `future.value` waits for (and returns) the result, raises query errors
+      def exec_query_async(sql, name = nil, binds = NO_BINDS, prepare: false)
+        pool = self.pool
+        permits = async_query_permits(pool) if pool
+        connection = checkout_async_connection(pool, permits) if permits
+
+        unless connection
+          begin
+            result = exec_query(sql, name, binds, prepare: prepare)
+          rescue => e
+            return ActiveRecord::ConnectionAdapters::JdbcConnection::QueryFuture.failed(e)
+          end
+          return ActiveRecord::ConnectionAdapters::JdbcConnection::QueryFuture.completed(result)
+        end
+
+        begin
+          ActiveRecord::ConnectionAdapters::JdbcConnection::QueryFuture.execute do
+            begin
+              pool.synchronize { connection.steal! } # checked out by the calling thread
+              connection.exec_query(sql, name, binds, prepare: prepare)
+            ensure
+              pool.checkin(connection)
+              permits.release
+            end
+          end
+        rescue Exception
+          pool.checkin(connection) # not submitted
+          permits.release
+          raise
+        end
+      end
+
+      ASYNC_QUERY_PERMITS = ObjectSpace::WeakMap.new # pool => Concurrent::Semaphore
+      ASYNC_QUERY_PERMITS_LOCK = Mutex.new
+      private_constant :ASYNC_QUERY_PERMITS, :ASYNC_QUERY_PERMITS_LOCK
+
+      # @return [Concurrent::Semaphore] limits the background queries of the pool
+      def async_query_permits(pool)
+        ASYNC_QUERY_PERMITS[pool] || ASYNC_QUERY_PERMITS_LOCK.synchronize do
+          ASYNC_QUERY_PERMITS[pool] ||= Concurrent::Semaphore.new([ pool.size - 1, 0 ].max)
+        end
+      end
+      private :async_query_permits
+
+      # @return a connection (checked out by this thread) or nil if none is available
+      def checkout_async_connection(pool, permits)
+        return nil unless permits.try_acquire
+        begin
+          pool.checkout(0) # do not wait for other threads to check their connections in
+        rescue ActiveRecord::ConnectionTimeoutError
+          permits.release
+          nil
+        rescue Exception
+          permits.release
+          raise
+        end
+      end
+      private :checkout_async_connection
+
+      # Streams the (query) result yielding rows (as hashes) one by one, rows are
+      # fetched in chunks of `fetch_size` (defaults to `jdbc_fetch_size` or 1000).
+      # The statement gets closed once done iterating (even on `break`).
+      # @return [Enumerator] unless a block is given
+      def exec_query_each(sql, name = nil, binds = NO_BINDS, fetch_size: nil, &block)
+        return enum_for(__method__, sql, name, binds, fetch_size: fetch_size) unless block_given?
+
+        if without_prepared_statement?(binds)
+          log(sql, name) { @connection.execute_query_each(sql, nil, fetch_size, &block) }
+        else
+          log(sql, name, binds) { @connection.execute_query_each(sql, binds, fetch_size, &block) }
+        end
+      end
+
       def exec_update(sql, name = nil, binds = NO_BINDS)
         if without_prepared_statement?(binds)
           log(sql, name) { @connection.execute_update(sql) }
         else
-          log(sql, name, binds) { @connection.execute_prepared_update(sql, binds) }
+          log(sql, name, binds) { @connection.execute_prepared_update(sql, binds, write_statement_cache_key(sql)) }
         end
       end
       alias :exec_delete :exec_update
 
+      # Executes a (parameterized) statement once for every set of binds using
+      # JDBC batching, binds are sent in chunks of `batch_size` (defaults to 1000).
+      # @return [Array] update counts, one for each set of binds (nil if unknown)
+      def exec_batch(sql, name = nil, binds_list = [], batch_size: nil)
+        return [] if binds_list.empty?
+        log(sql, name) { @connection.execute_batch(sql, binds_list, batch_size).first }
+      end
+
+      # Same as `exec_batch` but returns the generated keys (for an INSERT).
+      # @return [Array, nil] generated keys, nil if the driver does not support them
+      def exec_insert_batch(sql, name = nil, binds_list = [], batch_size: nil)
+        return [] if binds_list.empty?
+        log(sql, name) { @connection.execute_batch(sql, binds_list, batch_size, true).last }
+      end
+
+      # Inserts the given rows (hashes of column name => value) into a table,
+      # rows with the same columns get inserted using a single batched statement.
+      # @return [Integer] the number of inserted rows
+      def insert_batch(table_name, rows, name = nil, batch_size: nil)
+        columns = schema_cache.columns_hash(table_name)
+        rows.group_by(&:keys).each do |names, group|
+          if names.empty? # nothing but defaults, a column list can not be empty
+            sql = "INSERT INTO #{quote_table_name(table_name)} #{empty_insert_statement_value}"
+            group.each { exec_update(sql, name) }
+            next
+          end
+          names = names.map(&:to_s)
+          types = names.map do |col|
+            column = columns[col]
+            column ? lookup_cast_type_from_column(column) : ActiveModel::Type::Value.new
+          end
+
+          sql = "INSERT INTO #{quote_table_name(table_name)} " <<
+            "(#{names.map { |col| quote_column_name(col) }.join(', ')}) VALUES (#{(['?'] * names.size).join(', ')})"
+          binds_list = group.map do |row|
+            row.values.each_with_index.map { |value, i| batch_bind(names[i], value, types[i]) }
+          end
+          exec_batch(sql, name, binds_list, batch_size: batch_size)
+        end
+        rows.size
+      end
+
       # overridden to support legacy binds
+      # (and to return single primary keys directly, where supported)
       def insert(arel, name = nil, pk = nil, id_value = nil, sequence_name = nil, binds = [])
         binds = convert_legacy_binds_to_attributes(binds) if binds.first.is_a?(Array)
-        super
+        return super unless pk && ! pk.is_a?(Array) && use_insert_pk?
+
+        sql, binds = to_sql_and_binds(arel, binds)
+        value = exec_insert_pk(sql, name, binds, pk, sequence_name)
+        id_value || value
       end
       alias create insert
 
@@ -73,6 +233,37 @@ module ArJdbc
 
       private
 
+      # Whether #insert should use #exec_insert_pk, adapters opt-in when the
+      # generated key is the (single) primary key e.g. with IDENTITY columns.
+      def use_insert_pk?
+        false
+      end
+
+      # Inserts fixture rows using `insert_batch`, unknown columns are reported
+      # the way AR's `insert_fixture` does (instead of failing in the driver).
+      def insert_fixture_batch(table_name, rows)
+        columns = schema_cache.columns_hash(table_name)
+        if unknown = rows.flat_map(&:keys).uniq.find { |col| ! columns.key?(col.to_s) }
+          raise ActiveRecord::Fixture::FixtureError, %(table "#{table_name}" has no column named #{unknown.to_s.inspect}.)
+        end
+        insert_batch(table_name, rows, 'Fixture Insert')
+      end
+
+      # (parameterized) writes re-use cached statements, when the cache is enabled
+      def write_statement_cache_key(sql)
+        statement_cache_key(sql) if @jdbc_statement_cache_enabled
+      end
+
+      def batch_bind(name, value, type)
+        bind = ActiveRecord::Relation::QueryAttribute.new(name, value, type)
+        value = bind.value_for_database
+        if value.is_a?(Hash) || value.is_a?(Array) # YAML fallback (as with fixtures)
+          ActiveRecord::Relation::QueryAttribute.new(name, YAML.dump(value), ActiveModel::Type::String.new)
+        else
+          bind
+        end
+      end
+
       def convert_legacy_binds_to_attributes(binds)
         binds.map do |column, value|
           ActiveRecord::Relation::QueryAttribute.new(nil, type_cast(value, column), ActiveModel::Type::Value.new)
@@ -1,19 +1,27 @@
-require 'active_record/connection_adapters/statement_pool'
-
 module ArJdbc
   module Abstract
     module StatementCache
 
-      # This works a little differently than the AR implementation in that
-      # we are storing an actual PreparedStatement object instead of just
-      # the name of the prepared statement
-      class StatementPool < ActiveRecord::ConnectionAdapters::StatementPool
+      # Prepared statements are cached (by SQL key) in the (Java) connection,
+      # this is what AR expects to find as @statements e.g. to clear the cache.
+      class StatementPool
+
+        def initialize(connection)
+          @connection = connection
+        end
+
+        def delete(key)
+          @connection.delete_cached_statement(key)
+        end
 
-        private
+        def clear
+          @connection.clear_statement_cache
+        end
 
-        def dealloc(statement)
-          statement.close
+        def length
+          @connection.statement_cache_stats['size']
         end
+        alias size length
 
       end
 
@@ -25,7 +33,7 @@ module ArJdbc
         statement_limit = self.class.type_cast_config_to_integer(config[:statement_limit])
         @jdbc_statement_cache_enabled = prepared_statements && (statement_limit.nil? || statement_limit > 0)
 
-        @statements = StatementPool.new(statement_limit) # AR (5.0) expects this to be stored as @statements
+        @statements = StatementPool.new(@connection) # AR (5.0) expects this to be stored as @statements
       end
 
       # Clears the prepared statements cache.
@@ -37,8 +45,10 @@ module ArJdbc
         @statements.delete(sql_key(sql))
       end
 
-      def fetch_cached_statement(sql)
-        @statements[sql_key(sql)] ||= @connection.prepare_statement(sql)
+      # @return [Hash] prepared statement cache statistics
+      #   e.g. `{ 'size' => 10, 'limit' => 1000, 'hits' => 200, 'misses' => 10, 'evictions' => 0, 'prepare_time' => 0.02 }`
+      def statement_cache_stats
+        @connection.statement_cache_stats
       end
 
       def supports_statement_cache?
@@ -48,6 +58,11 @@ module ArJdbc
 
       private
 
+      # @return [String] the key a (prepared) statement for the SQL is cached under
+      def statement_cache_key(sql)
+        sql_key(sql)
+      end
+
       # This should be overridden by the adapter if the sql itself
       # is not enough to make the key unique
       def sql_key(sql)
@@ -13,6 +13,7 @@ ArJdbc::ConnectionMethods.module_eval do
     config[:url] ||= "jdbc:derby:#{config[:database]};create=true"
     config[:driver] ||= defined?(::Jdbc::Derby.driver_name) ?
       ::Jdbc::Derby.driver_name : 'org.apache.derby.jdbc.EmbeddedDriver'
+    config[:batch_rewrite_limit] ||= 1000 # bind parameters per multi-row INSERT
 
     embedded_driver(config)
   end
@@ -272,6 +272,11 @@ module ArJdbc
 
     private
 
+    # IDENTITY keys are returned as the (only) generated key
+    def use_insert_pk?
+      true
+    end
+
     def change_column_null(table_name, column_name, null, default = nil)
       if !null && !default.nil?
         execute("UPDATE #{table_name} SET #{column_name}=#{quote(default)} WHERE #{column_name} IS NULL")
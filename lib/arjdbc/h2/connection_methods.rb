@@ -20,6 +20,7 @@ ArJdbc::ConnectionMethods.module_eval do
       end
     end
     config[:driver] ||= defined?(::Jdbc::H2.driver_name) ? ::Jdbc::H2.driver_name : 'org.h2.Driver'
+    config[:batch_rewrite_limit] ||= 1000 # bind parameters per multi-row INSERT
 
     embedded_driver(config)
   end
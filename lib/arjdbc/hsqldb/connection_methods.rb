@@ -21,6 +21,7 @@ ArJdbc::ConnectionMethods.module_eval do
     end
     config[:driver] ||= defined?(::Jdbc::HSQLDB.driver_name) ? ::Jdbc::HSQLDB.driver_name : 'org.hsqldb.jdbcDriver'
     config[:connection_alive_sql] ||= 'CALL PI()' # does not like 'SELECT 1'
+    config[:batch_rewrite_limit] ||= 1000 # bind parameters per multi-row INSERT
 
     embedded_driver(config)
   end
@@ -8,6 +8,7 @@ require 'arjdbc/jdbc/error'
 require 'arjdbc/jdbc/connection_methods'
 require 'arjdbc/jdbc/column'
 require 'arjdbc/jdbc/connection'
+require 'arjdbc/jdbc/columnar_result'
 require 'arjdbc/jdbc/callbacks'
 require 'arjdbc/jdbc/extension'
 require 'arjdbc/jdbc/type_converter'
@@ -239,14 +240,23 @@ module ActiveRecord
       # @yield [v1, v2] depending on the row values returned from the query
       # In case a block is given it will yield each row from the result set
       # instead of returning mapped query results in an array.
+      # @param batch_size when given (with a block) yields arrays of (up to)
+      # `batch_size` rows (each row being an array of values) instead
+      # @param prefetch with a `batch_size` fetches the next batch in the
+      # background while the block processes the current one (the connection
+      # should not be used from within the block)
       # @return [Array] unless a block is given
-      def exec_query_raw(sql, name = 'SQL', binds = [], &block)
+      def exec_query_raw(sql, name = 'SQL', binds = [], batch_size: nil, prefetch: false, &block)
         sql = to_sql(sql, binds) if sql.respond_to?(:to_sql)
 
+        args = [ sql ]
+        args << binds if prepared_statements?
+        args << { batch_size: batch_size, prefetch: prefetch } if batch_size && block
+
         if prepared_statements?
-          log(sql, name, binds) { @connection.execute_query_raw(sql, binds, &block) }
+          log(sql, name, binds) { @connection.execute_query_raw(*args, &block) }
         else
-          log(sql, name) { @connection.execute_query_raw(sql, &block) }
+          log(sql, name) { @connection.execute_query_raw(*args, &block) }
         end
       end
 
@@ -12,4 +12,15 @@ module ActiveRecord
 
     self.prepend(m)
   end
-end
\ No newline at end of file
+end
+
+require 'active_record/result'
+
+module ActiveRecord
+  class Result
+    # @return [Hash, nil] per column string dictionary (interning) statistics
+    # e.g. `{ 'status' => { 'hits' => 990, 'misses' => 10, 'interned' => true } }`
+    # only available with `intern_strings: true` configured
+    attr_reader :string_dictionary_stats unless method_defined?(:string_dictionary_stats)
+  end
+end
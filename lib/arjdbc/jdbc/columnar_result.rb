@@ -0,0 +1,57 @@
+require 'active_record/result'
+
+module ActiveRecord
+  module ConnectionAdapters
+    class JdbcConnection
+      # An `ActiveRecord::Result` returned when `columnar_results: true` is
+      # configured. Values are buffered column-wise (see *ColumnarRows.java*)
+      # and only turned into Ruby objects once rows (or a column) are accessed.
+      class ColumnarResult < ::ActiveRecord::Result
+
+        def initialize(columns, columnar_rows, column_types = {})
+          super(columns, nil, column_types)
+          @columnar_rows = columnar_rows
+        end
+
+        def rows
+          @rows ||= @columnar_rows.to_a
+        end
+
+        def length
+          @rows ? @rows.length : @columnar_rows.length
+        end
+
+        def empty?
+          @rows ? @rows.empty? : @columnar_rows.empty?
+        end
+
+        # NOTE: AR's `first` and `last` read (the lazy) `@rows` directly
+        def first
+          rows
+          super
+        end
+
+        def last
+          rows
+          super
+        end
+
+        # @param column [String, Integer] column name or index
+        # @return [Array] all values of the given column (without materializing rows)
+        def column_values(column)
+          index = column.is_a?(Integer) ? column : @columns.index(column)
+          raise ArgumentError, "no such column: #{column.inspect}" unless index
+          @rows ? @rows.map { |row| row[index] } : @columnar_rows.column(index)
+        end
+
+        private
+
+        def hash_rows
+          rows
+          super
+        end
+
+      end
+    end
+  end
+end
@@ -29,6 +29,8 @@ ArJdbc::ConnectionMethods.module_eval do
     config[:port] ||= 1433
     config[:driver] ||= defined?(::Jdbc::JTDS.driver_name) ? ::Jdbc::JTDS.driver_name : 'net.sourceforge.jtds.jdbc.Driver'
     config[:connection_alive_sql] ||= 'SELECT 1'
+    # execute_multi sends (;-separated) statements in a single round-trip
+    config[:multi_statements] = true unless config.key?(:multi_statements)
 
     config[:url] ||= begin
       url = "jdbc:jtds:sqlserver://#{config[:host]}:#{config[:port]}/#{config[:database]}"
@@ -60,6 +62,8 @@ ArJdbc::ConnectionMethods.module_eval do
     config[:host] ||= 'localhost'
     config[:driver] ||= 'com.microsoft.sqlserver.jdbc.SQLServerDriver'
     config[:connection_alive_sql] ||= 'SELECT 1'
+    # execute_multi sends (;-separated) statements in a single round-trip
+    config[:multi_statements] = true unless config.key?(:multi_statements)
 
     config[:url] ||= begin
       url = "jdbc:sqlserver://#{config[:host]}"
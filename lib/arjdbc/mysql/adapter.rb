@@ -146,6 +146,11 @@ module ActiveRecord
         ::ActiveRecord::ConnectionAdapters::MySQL::Column
       end
 
+      # the AUTO_INCREMENT key is returned as the (only) generated key
+      def use_insert_pk?
+        true
+      end
+
       # defined in MySQL::DatabaseStatements which is not included
       def default_insert_value(column)
         Arel.sql("DEFAULT") unless column.auto_increment?
@@ -35,6 +35,8 @@ ArJdbc::ConnectionMethods.module_eval do
     end
 
     properties = ( config[:properties] ||= {} )
+    # the driver collapses batched INSERTs into multi-row statements (opt-in)
+    properties['rewriteBatchedStatements'] ||= true if config[:batch_rewrite_limit]
     if mysql_driver
       properties['zeroDateTimeBehavior'] ||= 'convertToNull'
       properties['jdbcCompliantTruncation'] ||= false
@@ -90,6 +92,8 @@ ArJdbc::ConnectionMethods.module_eval do
     # - thus we're turning it off (should be off in newer driver versions >= 6 anyway)
     # + also MariaDB driver is compilant and we would need to branch out based on driver
     properties['useLegacyDatetimeCode'] = false
+    # execute_multi sends (;-separated) statements in a single round-trip only if the driver allows it
+    config[:multi_statements] = properties['allowMultiQueries'].to_s == 'true' unless config.key?(:multi_statements)
 
     jdbc_connection(config)
   end
@@ -378,6 +378,11 @@ module ArJdbc
       end
     end
 
+    # Returns the (primary) key using INSERT ... RETURNING (no generated keys).
+    def exec_insert_pk(sql, name = nil, binds = [], pk = nil, sequence_name = nil)
+      super("#{sql} RETURNING #{quote_column_name(pk)}", name, binds, pk, sequence_name)
+    end
+
     def explain(arel, binds = [])
       sql, binds = to_sql_and_binds(arel, binds)
       ActiveRecord::ConnectionAdapters::PostgreSQL::ExplainPrettyPrinter.new.pp(exec_query("EXPLAIN #{sql}", 'EXPLAIN', binds))
@@ -543,6 +548,10 @@ module ArJdbc
 
     private
 
+    def use_insert_pk?
+      use_insert_returning?
+    end
+
     # Pulled from ActiveRecord's Postgres adapter and modified to use execute
     def can_perform_case_insensitive_comparison_for?(column)
       @case_insensitive_cache ||= {}
@@ -50,12 +50,22 @@ ArJdbc::ConnectionMethods.module_eval do
     end
     properties['tcpKeepAlive'] ||= config[:keepalives] if config.key?(:keepalives)
     properties['kerberosServerName'] ||= config[:krbsrvname] if config[:krbsrvname]
+    # the driver collapses batched INSERTs into multi-row statements (opt-in)
+    properties['reWriteBatchedInserts'] ||= 'true' if config[:batch_rewrite_limit]
+    # execute_multi sends (;-separated) statements in a single round-trip
+    config[:multi_statements] = true unless config.key?(:multi_statements)
 
     prepared_statements = config.fetch(:prepared_statements) { true }
     prepared_statements = false if prepared_statements == 'false'
     if prepared_statements
       # this makes the pgjdbc driver handle hot compatibility internally
       properties['autosave'] ||= 'conservative'
+      if config[:binary_transfer]
+        # values get decoded from the binary format (for prepared statements)
+        # the driver only uses it after prepareThreshold executions, -1 forces binary right away
+        properties['binaryTransfer'] ||= 'true'
+        properties['prepareThreshold'] ||= -1
+      end
     else
       # If prepared statements are off, lets make sure they are really *off*
       properties['prepareThreshold'] = 0
@@ -110,6 +110,8 @@ module ArJdbc
           @type_map.clear
           initialize_type_map(@type_map)
         end
+        # types resolved (and cached) by the connection for results
+        @connection.clear_oid_type_cache if @connection
       end
 
       private
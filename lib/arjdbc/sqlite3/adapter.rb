@@ -344,13 +344,19 @@ module ArJdbc
           tables_to_delete.each { |table| delete "DELETE FROM #{quote_table_name(table)}", "Fixture Delete" }
 
           fixture_set.each do |table_name, rows|
-            rows.each { |row| insert_fixture(row, table_name) }
+            insert_fixture_batch(table_name, rows)
           end
         end
       end
     end
     
     private
+
+    # the key is read using last_insert_rowid() (see #exec_insert_pk)
+    def use_insert_pk?
+      true
+    end
+
     def initialize_type_map(m = type_map)
       super
       register_class_with_limit m, %r(int)i, SQLite3Integer
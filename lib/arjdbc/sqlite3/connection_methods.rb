@@ -26,6 +26,10 @@ ArJdbc::ConnectionMethods.module_eval do
     database = config[:database] # NOTE: "jdbc:sqlite::memory:" syntax is supported
     config[:url] ||= "jdbc:sqlite:#{database == ':memory:' ? '' : database}"
     config[:connection_alive_sql] ||= 'SELECT 1'
+    # batched INSERTs get rewritten into multi-row ones (SQLITE_MAX_VARIABLE_NUMBER is 999)
+    config[:batch_rewrite_limit] ||= 999
+    # Statement#setQueryTimeout sets SQLite's busy timeout, cancel timed-out statements instead
+    config[:statement_timeout_watchdog] = true unless config.key?(:statement_timeout_watchdog)
 
     timeout = config[:timeout]
     if timeout && timeout.to_s !~ /\A\d+\Z/
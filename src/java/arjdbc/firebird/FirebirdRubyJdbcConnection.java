@@ -23,6 +23,8 @@
  */
 package arjdbc.firebird;
 
+import arjdbc.jdbc.ColumnConverter;
+import arjdbc.jdbc.ColumnarRows;
 import arjdbc.jdbc.RubyJdbcConnection;
 
 import java.sql.Connection;
@@ -70,6 +72,18 @@ public class FirebirdRubyJdbcConnection extends RubyJdbcConnection {
         return RubyString.newUnicodeString(runtime, value);
     }
 
+    @Override // due our stringToRuby
+    protected ColumnarRows.Column newColumnBuffer(final ThreadContext context, final ColumnData column) {
+        switch (column.type) {
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+                return new ColumnarRows.ObjectColumn(newColumnConverter(context, column), column.index);
+        }
+        return super.newColumnBuffer(context, column);
+    }
+
     @Override // booleans are emulated can not setNull(index, Types.BOOLEAN)
     protected void setBooleanParameter(final ThreadContext context,
         final Connection connection, final PreparedStatement statement,
@@ -95,6 +109,16 @@ public class FirebirdRubyJdbcConnection extends RubyJdbcConnection {
         return super.jdbcToRuby(context, runtime, column, type, resultSet);
     }
 
+    @Override
+    protected ColumnConverter newColumnConverter(final ThreadContext context, final ColumnData column) {
+        switch (column.type) {
+            case SMALL_CHAR_1:
+            case SMALL_CHAR_2:
+                return jdbcToRubyConverter(column);
+        }
+        return super.newColumnConverter(context, column);
+    }
+
     private static IRubyObject smallChar1ToRuby(
         final Ruby runtime, final ResultSet resultSet, final int column)
         throws SQLException {
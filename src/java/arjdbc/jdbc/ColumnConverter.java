@@ -0,0 +1,29 @@
+package arjdbc.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+
+/**
+ * Converts a (JDBC) result column value into a Ruby object.
+ *
+ * Converters are resolved once per result column (before rows are being
+ * processed) thus should not need to check the column type on every call.
+ *
+ * @see RubyJdbcConnection#newColumnConverter(ThreadContext, RubyJdbcConnection.ColumnData)
+ */
+public interface ColumnConverter {
+
+    /**
+     * Convert the value at the current result set row.
+     * @param context current thread context
+     * @param resultSet the result set to read the value from
+     * @param column the (1-based) column index
+     * @return converted value
+     * @throws SQLException
+     */
+    IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException;
+
+}
@@ -0,0 +1,320 @@
+package arjdbc.jdbc;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.jcodings.Encoding;
+import org.jruby.Ruby;
+import org.jruby.RubyArray;
+import org.jruby.RubyClass;
+import org.jruby.RubyNumeric;
+import org.jruby.RubyObject;
+import org.jruby.RubyString;
+import org.jruby.anno.JRubyMethod;
+import org.jruby.runtime.ObjectAllocator;
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+import org.jruby.util.ByteList;
+
+/**
+ * Result rows kept in a column-wise fashion, numeric and boolean values are
+ * buffered as primitives and strings as byte slices, Ruby objects only get
+ * created once a row (or a column) is being accessed.
+ *
+ * @see RubyJdbcConnection#newColumnBuffer(ThreadContext, RubyJdbcConnection.ColumnData)
+ */
+public class ColumnarRows extends RubyObject {
+
+    private static final long serialVersionUID = 2741857052716423305L;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Column[] columns;
+    private int size;
+
+    static RubyClass createColumnarRowsClass(final Ruby runtime, final RubyClass jdbcConnection) {
+        final RubyClass ColumnarRows = jdbcConnection.defineClassUnder("ColumnarRows", runtime.getObject(), ObjectAllocator.NOT_ALLOCATABLE_ALLOCATOR);
+        ColumnarRows.defineAnnotatedMethods(ColumnarRows.class);
+        return ColumnarRows;
+    }
+
+    private ColumnarRows(final Ruby runtime, final RubyClass metaClass, final Column[] columns) {
+        super(runtime, metaClass);
+        this.columns = columns;
+    }
+
+    /**
+     * Reads (and buffers) all remaining rows from the given result set.
+     * @param context current thread context
+     * @param columns column buffers (one for every result column)
+     * @param resultSet the result set to read
+     * @return rows
+     * @throws SQLException
+     */
+    static ColumnarRows newRows(final ThreadContext context, final Column[] columns, final ResultSet resultSet) throws SQLException {
+        final RubyClass klass = (RubyClass) RubyJdbcConnection.getJdbcConnection(context.runtime).getConstantAt("ColumnarRows");
+        final ColumnarRows rows = new ColumnarRows(context.runtime, klass, columns);
+
+        int size = 0;
+        while ( resultSet.next() ) {
+            for ( int i = 0; i < columns.length; i++ ) {
+                columns[i].read(context, resultSet, size);
+            }
+            size++;
+        }
+        rows.size = size;
+        return rows;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    @JRubyMethod(name = { "length", "size" })
+    public IRubyObject length(final ThreadContext context) {
+        return context.runtime.newFixnum(size);
+    }
+
+    @JRubyMethod(name = "empty?")
+    public IRubyObject empty_p(final ThreadContext context) {
+        return context.runtime.newBoolean(size == 0);
+    }
+
+    @JRubyMethod(name = { "row", "[]" }, required = 1)
+    public IRubyObject row(final ThreadContext context, final IRubyObject index) {
+        int row = RubyNumeric.fix2int(index);
+        if ( row < 0 ) row += size;
+        if ( row < 0 || row >= size ) return context.nil;
+        return materializeRow(context, row);
+    }
+
+    /**
+     * @param context current thread context
+     * @param index the column index
+     * @return all the values of the given column
+     */
+    @JRubyMethod(name = "column", required = 1)
+    public IRubyObject column(final ThreadContext context, final IRubyObject index) {
+        final Column column = columns[ RubyNumeric.fix2int(index) ];
+        final IRubyObject[] values = new IRubyObject[size];
+        for ( int i = 0; i < size; i++ ) values[i] = column.get(context, i);
+        return RubyArray.newArrayNoCopy(context.runtime, values);
+    }
+
+    @JRubyMethod(name = { "to_a", "rows" })
+    public IRubyObject to_a(final ThreadContext context) {
+        final IRubyObject[] rows = new IRubyObject[size];
+        for ( int i = 0; i < size; i++ ) rows[i] = materializeRow(context, i);
+        return RubyArray.newArrayNoCopy(context.runtime, rows);
+    }
+
+    private RubyArray materializeRow(final ThreadContext context, final int row) {
+        final IRubyObject[] values = new IRubyObject[columns.length];
+        for ( int i = 0; i < columns.length; i++ ) {
+            values[i] = columns[i].get(context, row);
+        }
+        return RubyArray.newArrayNoCopy(context.runtime, values);
+    }
+
+    static int grow(final int capacity, final int row) {
+        int newCapacity = capacity + (capacity >> 1) + 1;
+        return newCapacity > row ? newCapacity : row + 1;
+    }
+
+    /**
+     * A (result) column buffer.
+     */
+    public static abstract class Column {
+
+        protected final int index; // (1-based) result set index
+
+        protected Column(final int index) {
+            this.index = index;
+        }
+
+        /**
+         * Reads the value at the current result set row.
+         * @param context current thread context
+         * @param resultSet the result set positioned at the given row
+         * @param row the (0-based) row number
+         * @throws SQLException
+         */
+        protected abstract void read(ThreadContext context, ResultSet resultSet, int row) throws SQLException;
+
+        /**
+         * @param context current thread context
+         * @param row the (0-based) row number
+         * @return the value as a Ruby object
+         */
+        protected abstract IRubyObject get(ThreadContext context, int row);
+
+    }
+
+    /**
+     * Buffers (integer) values as <code>long[]</code>.
+     */
+    public static class LongColumn extends Column {
+
+        private long[] values = new long[INITIAL_CAPACITY];
+        private final BitSet nulls = new BitSet();
+
+        public LongColumn(final int index) { super(index); }
+
+        @Override
+        protected void read(final ThreadContext context, final ResultSet resultSet, final int row) throws SQLException {
+            final long value = resultSet.getLong(index);
+            if ( value == 0 && resultSet.wasNull() ) { nulls.set(row); return; }
+            if ( row >= values.length ) values = Arrays.copyOf(values, grow(values.length, row));
+            values[row] = value;
+        }
+
+        @Override
+        protected IRubyObject get(final ThreadContext context, final int row) {
+            if ( nulls.get(row) ) return context.nil;
+            return context.runtime.newFixnum(values[row]);
+        }
+
+    }
+
+    /**
+     * Buffers (floating point) values as <code>double[]</code>.
+     */
+    public static class DoubleColumn extends Column {
+
+        private double[] values = new double[INITIAL_CAPACITY];
+        private final BitSet nulls = new BitSet();
+
+        public DoubleColumn(final int index) { super(index); }
+
+        @Override
+        protected void read(final ThreadContext context, final ResultSet resultSet, final int row) throws SQLException {
+            final double value = resultSet.getDouble(index);
+            if ( value == 0 && resultSet.wasNull() ) { nulls.set(row); return; }
+            if ( row >= values.length ) values = Arrays.copyOf(values, grow(values.length, row));
+            values[row] = value;
+        }
+
+        @Override
+        protected IRubyObject get(final ThreadContext context, final int row) {
+            if ( nulls.get(row) ) return context.nil;
+            return context.runtime.newFloat(values[row]);
+        }
+
+    }
+
+    /**
+     * Buffers boolean values as a bit-set (with a separate null mask).
+     */
+    public static class BooleanColumn extends Column {
+
+        private final BitSet values = new BitSet();
+        private final BitSet nulls = new BitSet();
+
+        public BooleanColumn(final int index) { super(index); }
+
+        @Override
+        protected void read(final ThreadContext context, final ResultSet resultSet, final int row) throws SQLException {
+            final boolean value = resultSet.getBoolean(index);
+            if ( value == false && resultSet.wasNull() ) { nulls.set(row); return; }
+            if ( value ) values.set(row);
+        }
+
+        @Override
+        protected IRubyObject get(final ThreadContext context, final int row) {
+            if ( nulls.get(row) ) return context.nil;
+            return context.runtime.newBoolean(values.get(row));
+        }
+
+    }
+
+    /**
+     * Buffers strings as byte slices (of a shared byte buffer).
+     */
+    public static class StringColumn extends Column {
+
+        private final boolean readBytes;
+        private final Encoding encoding;
+
+        private byte[] bytes = new byte[INITIAL_CAPACITY * 16];
+        private int bytesSize = 0;
+        private int[] offsets = new int[INITIAL_CAPACITY];
+        private int[] lengths = new int[INITIAL_CAPACITY]; // -1 for NULL
+
+        /**
+         * @param index the result set index
+         * @param encoding encoding of (returned) strings
+         * @param readBytes whether to use <code>getBytes</code> instead of
+         * <code>getString</code> (the encoding than needs to match the driver's)
+         */
+        public StringColumn(final int index, final Encoding encoding, final boolean readBytes) {
+            super(index);
+            this.encoding = encoding;
+            this.readBytes = readBytes;
+        }
+
+        @Override
+        protected void read(final ThreadContext context, final ResultSet resultSet, final int row) throws SQLException {
+            final byte[] value;
+            if ( readBytes ) value = resultSet.getBytes(index);
+            else {
+                final String str = resultSet.getString(index);
+                value = str == null ? null : str.getBytes(StandardCharsets.UTF_8);
+            }
+
+            if ( row >= offsets.length ) {
+                final int capacity = grow(offsets.length, row);
+                offsets = Arrays.copyOf(offsets, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+
+            if ( value == null ) { lengths[row] = -1; return; }
+
+            final int end = bytesSize + value.length;
+            if ( end > bytes.length ) bytes = Arrays.copyOf(bytes, grow(bytes.length, end));
+            System.arraycopy(value, 0, bytes, bytesSize, value.length);
+            offsets[row] = bytesSize; lengths[row] = value.length;
+            bytesSize = end;
+        }
+
+        @Override
+        protected IRubyObject get(final ThreadContext context, final int row) {
+            final int length = lengths[row];
+            if ( length == -1 ) return context.nil;
+            // NOTE: copy the slice so that a (retained) string does not retain the whole buffer
+            return RubyString.newString(context.runtime, new ByteList(bytes, offsets[row], length, encoding, true));
+        }
+
+    }
+
+    /**
+     * Converts values eagerly (using a column converter), used for all types
+     * that are not buffered as primitives.
+     */
+    public static class ObjectColumn extends Column {
+
+        private final ColumnConverter converter;
+
+        private IRubyObject[] values = new IRubyObject[INITIAL_CAPACITY];
+
+        public ObjectColumn(final ColumnConverter converter, final int index) {
+            super(index);
+            this.converter = converter;
+        }
+
+        @Override
+        protected void read(final ThreadContext context, final ResultSet resultSet, final int row) throws SQLException {
+            if ( row >= values.length ) values = Arrays.copyOf(values, grow(values.length, row));
+            values[row] = converter.convert(context, resultSet, index);
+        }
+
+        @Override
+        protected IRubyObject get(final ThreadContext context, final int row) {
+            return values[row];
+        }
+
+    }
+
+}
@@ -0,0 +1,186 @@
+package arjdbc.jdbc;
+
+import org.jruby.RubyInteger;
+import org.jruby.RubyNumeric;
+import org.jruby.RubyString;
+import org.jruby.exceptions.RaiseException;
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+
+/**
+ * (Immutable) connection settings, parsed once from the (Ruby) configuration
+ * hash so that hot paths (such as creating statements) do not need to look
+ * values up in the hash. Re-resolved when the configuration gets changed.
+ *
+ * @see RubyJdbcConnection#getSettings()
+ */
+public final class ConnectionSettings {
+
+    /**
+     * Whether the adapter's <code>configure_connection</code> gets called on (re-)connect.
+     */
+    public final boolean configureConnection;
+    /**
+     * <code>jdbc_fetch_size</code>, 0 means the JDBC (driver) default.
+     */
+    public final int fetchSize;
+    /**
+     * <code>statement_escape_processing</code>, null when not configured.
+     */
+    public final Boolean escapeProcessing;
+
+    public final boolean columnarResults;
+    public final boolean internStrings;
+
+    /**
+     * Per connection "raw" modes, null when not configured (following the
+     * global <code>JdbcConnection.raw_date_time</code>/<code>raw_boolean</code>).
+     */
+    public final Boolean rawDate, rawTime, rawTimestamp, rawBoolean;
+
+    /**
+     * Max bind parameters for a (rewritten) multi-row INSERT, 0 to not rewrite.
+     */
+    public final int batchRewriteLimit;
+    /**
+     * Max (cached) prepared statements.
+     */
+    public final int statementLimit;
+    /**
+     * Whether the driver executes several (;-separated) statements at once.
+     */
+    public final boolean multiStatements;
+
+    /**
+     * Statement timeout in milliseconds, 0 for none.
+     */
+    public final long statementTimeout;
+    /**
+     * Whether timed-out statements are cancelled by the watchdog (instead of the driver).
+     */
+    public final boolean statementTimeoutWatchdog;
+
+    /**
+     * <code>connection_alive_sql</code>, null to use <code>Connection#isValid</code>.
+     */
+    public final String aliveSQL;
+    /**
+     * <code>connection_alive_timeout</code> in seconds, 0 for none.
+     */
+    public final int aliveTimeout;
+    /**
+     * <code>connection_keep_alive</code> in milliseconds, 0 for none (validate on every <code>active?</code>).
+     * Connections used within the interval are considered alive, idle ones get validated in the background.
+     */
+    public final long keepAlive;
+
+    /**
+     * <code>connection_retries</code> how many times a failed operation is
+     * re-tried (re-connecting if the connection got broken), defaults to 1.
+     */
+    public final int retries;
+
+    ConnectionSettings(final ThreadContext context, final RubyJdbcConnection connection) {
+        IRubyObject value = connection.getConfigValue(context, "configure_connection");
+        this.configureConnection = value == context.nil || value != context.runtime.getFalse();
+
+        value = connection.getConfigValue(context, "jdbc_fetch_size");
+        this.fetchSize = value == context.nil ? 0 : RubyNumeric.fix2int(value);
+
+        this.escapeProcessing = getBoolean(context, connection, "statement_escape_processing", null);
+
+        this.columnarResults = isTrue(context, connection.getConfigValue(context, "columnar_results"));
+        this.internStrings = isTrue(context, connection.getConfigValue(context, "intern_strings"));
+
+        final Boolean rawDateTime = getBoolean(context, connection, "raw_date_time", null);
+        this.rawDate = getBoolean(context, connection, "raw_date", rawDateTime);
+        this.rawTime = getBoolean(context, connection, "raw_time", rawDateTime);
+        this.rawTimestamp = getBoolean(context, connection, "raw_timestamp", rawDateTime);
+        this.rawBoolean = getBoolean(context, connection, "raw_boolean", null);
+
+        value = connection.getConfigValue(context, "batch_rewrite_limit");
+        this.batchRewriteLimit = value instanceof RubyInteger ? RubyNumeric.fix2int(value) : 0;
+
+        this.statementLimit = getInt(context, connection, "statement_limit", StatementCache.DEFAULT_LIMIT);
+
+        this.multiStatements = isTrue(context, connection.getConfigValue(context, "multi_statements"));
+
+        this.statementTimeout = getTimeoutMillis(context, connection, "statement_timeout");
+        this.statementTimeoutWatchdog = isTrue(context, connection.getConfigValue(context, "statement_timeout_watchdog"));
+
+        value = connection.getConfigValue(context, "connection_alive_sql");
+        this.aliveSQL = value == context.nil ? null : value.asString().toString();
+        this.aliveTimeout = getInt(context, connection, "connection_alive_timeout", 0);
+        this.keepAlive = getTimeoutMillis(context, connection, "connection_keep_alive");
+
+        this.retries = Math.max(0, getInt(context, connection, "connection_retries", 1));
+    }
+
+    private static boolean isTrue(final ThreadContext context, final IRubyObject value) {
+        return value != context.nil && value != context.runtime.getFalse();
+    }
+
+    private static Boolean getBoolean(final ThreadContext context, final RubyJdbcConnection connection,
+        final String key, final Boolean defaultValue) {
+        final IRubyObject value = connection.getConfigValue(context, key);
+        if ( value == context.nil ) return defaultValue;
+        return value != context.runtime.getFalse();
+    }
+
+    static int getInt(final ThreadContext context, final RubyJdbcConnection connection,
+        final String key, final int defaultValue) {
+        final IRubyObject value = connection.getConfigValue(context, key);
+        if ( value == context.nil ) return defaultValue;
+        try {
+            return value instanceof RubyString ? Integer.parseInt(value.toString().trim()) : RubyNumeric.num2int(value);
+        }
+        catch (NumberFormatException e) {
+            throw invalidValue(context, key, value);
+        }
+    }
+
+    static long getTimeoutMillis(final ThreadContext context, final RubyJdbcConnection connection, final String key) {
+        return toTimeoutMillis(context, key, connection.getConfigValue(context, key));
+    }
+
+    /**
+     * @param context
+     * @param timeout (in seconds) nil or false for none
+     * @return the timeout in milliseconds (0 for none)
+     */
+    static long toTimeoutMillis(final ThreadContext context, final IRubyObject timeout) {
+        return toTimeoutMillis(context, "timeout", timeout);
+    }
+
+    /**
+     * @param context
+     * @param key the (config) name of the timeout, reported when the value is not valid
+     * @param timeout (in seconds) nil or false for none
+     * @return the timeout in milliseconds (0 for none)
+     */
+    static long toTimeoutMillis(final ThreadContext context, final String key, final IRubyObject timeout) {
+        if ( timeout == context.nil || timeout == context.runtime.getFalse() ) return 0;
+        final double seconds;
+        try {
+            seconds = timeout instanceof RubyString ?
+                Double.parseDouble(timeout.toString()) : RubyNumeric.num2dbl(timeout);
+        }
+        catch (NumberFormatException e) {
+            throw invalidValue(context, key, timeout);
+        }
+        return seconds <= 0 ? 0 : Math.max(1, (long) Math.ceil(seconds * 1000));
+    }
+
+    private static RaiseException invalidValue(final ThreadContext context, final String key, final IRubyObject value) {
+        return context.runtime.newArgumentError("invalid value for " + key + ": " + value.inspect());
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionSettings{fetchSize=" + fetchSize + ", escapeProcessing=" + escapeProcessing +
+               ", columnarResults=" + columnarResults + ", statementLimit=" + statementLimit +
+               ", statementTimeout=" + statementTimeout + ", aliveSQL=" + aliveSQL +
+               ", aliveTimeout=" + aliveTimeout + ", keepAlive=" + keepAlive + ", retries=" + retries + '}';
+    }
+
+}
@@ -0,0 +1,63 @@
+package arjdbc.jdbc;
+
+/**
+ * (Immutable) settings of how result values get converted, resolved for a
+ * connection once when a result starts being mapped.
+ *
+ * A "raw" mode skips creating Ruby objects and returns the value as a string,
+ * as the database (or java.sql type) formats it.
+ *
+ * @see RubyJdbcConnection#getConversionSettings()
+ */
+public final class ConversionSettings {
+
+    private static final int RAW_DATE = 1;
+    private static final int RAW_TIME = 2;
+    private static final int RAW_TIMESTAMP = 4;
+    private static final int RAW_BOOLEAN = 8;
+
+    // all the (16) possible combinations, so that resolving settings never allocates
+    private static final ConversionSettings[] SETTINGS = new ConversionSettings[16];
+    static {
+        for ( int i = 0; i < SETTINGS.length; i++ ) SETTINGS[i] = new ConversionSettings(i);
+    }
+
+    public static final ConversionSettings DEFAULT = SETTINGS[0];
+
+    /**
+     * DATE values returned as (yyyy-mm-dd) strings instead of <code>Date</code>.
+     */
+    public final boolean rawDate;
+    /**
+     * TIME values returned as strings instead of (dummy) <code>Time</code>.
+     */
+    public final boolean rawTime;
+    /**
+     * TIMESTAMP values returned as strings instead of <code>Time</code>.
+     */
+    public final boolean rawTimestamp;
+    /**
+     * BIT/BOOLEAN values returned as strings instead of true/false.
+     */
+    public final boolean rawBoolean;
+
+    private ConversionSettings(final int flags) {
+        this.rawDate = ( flags & RAW_DATE ) != 0;
+        this.rawTime = ( flags & RAW_TIME ) != 0;
+        this.rawTimestamp = ( flags & RAW_TIMESTAMP ) != 0;
+        this.rawBoolean = ( flags & RAW_BOOLEAN ) != 0;
+    }
+
+    public static ConversionSettings valueOf(final boolean rawDate, final boolean rawTime,
+        final boolean rawTimestamp, final boolean rawBoolean) {
+        return SETTINGS[ ( rawDate ? RAW_DATE : 0 ) | ( rawTime ? RAW_TIME : 0 ) |
+                         ( rawTimestamp ? RAW_TIMESTAMP : 0 ) | ( rawBoolean ? RAW_BOOLEAN : 0 ) ];
+    }
+
+    @Override
+    public String toString() {
+        return "ConversionSettings{rawDate=" + rawDate + ", rawTime=" + rawTime +
+               ", rawTimestamp=" + rawTimestamp + ", rawBoolean=" + rawBoolean + '}';
+    }
+
+}
@@ -4,7 +4,6 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 
-import org.jruby.Ruby;
 import org.jruby.RubyArray;
 import org.jruby.RubyClass;
 import org.jruby.RubyHash;
@@ -23,11 +22,15 @@ public class JdbcResult extends RubyObject {
     // Should these be private with accessors?
     protected final RubyArray values;
     protected RubyHash[] tuples;
+    private RubyHash columnIndexes; // lazily created (shared by row views)
 
     protected final int[] columnTypes;
     protected RubyString[] columnNames;
     protected final RubyJdbcConnection connection;
 
+    private final RubyJdbcConnection.ColumnData[] columns;
+    private final ColumnConverter[] converters;
+
     protected JdbcResult(ThreadContext context, RubyClass clazz, RubyJdbcConnection connection, ResultSet resultSet) throws SQLException {
         super(context.runtime, clazz);
 
@@ -39,8 +42,9 @@ public class JdbcResult extends RubyObject {
         // FIXME: if we support MSSQL we may need to change how we deal with omitting elements
         columnNames = new RubyString[columnCount];
         columnTypes = new int[columnCount];
-        extractColumnInfo(context, resultMetaData);
-        processResultSet(context, resultSet);
+        columns = extractColumnInfo(context, resultMetaData);
+        converters = connection.newColumnConverters(context, columns);
+        processResultSet(context, resultSet, converters);
     }
 
     /**
@@ -58,15 +62,19 @@ public class JdbcResult extends RubyObject {
      * @param resultMetaData metadata from a ResultSet to determine column information from
      * @throws SQLException throws error!
      */
-    private void extractColumnInfo(ThreadContext context, ResultSetMetaData resultMetaData) throws SQLException {
+    private RubyJdbcConnection.ColumnData[] extractColumnInfo(ThreadContext context, ResultSetMetaData resultMetaData) throws SQLException {
         final int columnCount = resultMetaData.getColumnCount();
+        final RubyJdbcConnection.ColumnData[] columns = new RubyJdbcConnection.ColumnData[columnCount];
 
         for (int i = 1; i <= columnCount; i++) { // metadata is one-based
             // This appears to not be used by Postgres, MySQL, or SQLite so leaving it off for now
             //name = caseConvertIdentifierForRails(connection, name);
-            columnNames[i - 1] = RubyJdbcConnection.STRING_CACHE.get(context, resultMetaData.getColumnLabel(i));
+            final String label = resultMetaData.getColumnLabel(i);
+            columnNames[i - 1] = RubyJdbcConnection.STRING_CACHE.get(context, label);
             columnTypes[i - 1] = resultMetaData.getColumnType(i);
+            columns[i - 1] = new RubyJdbcConnection.ColumnData(label, columnTypes[i - 1], i);
         }
+        return columns;
     }
 
     /**
@@ -94,21 +102,37 @@ public class JdbcResult extends RubyObject {
         }
     }
 
+    /**
+     * Creates a hash-like view of a row, values are read from the row's array
+     * (no per row hash gets built).
+     * @param context current thread context
+     * @param row the (0-based) row index
+     * @return a <code>JdbcConnection::ResultRow</code>
+     */
+    protected ResultRow newRow(final ThreadContext context, final int row) {
+        if (columnIndexes == null) {
+            columnIndexes = ResultRow.newColumnIndexes(context.runtime, columnNames);
+        }
+        final RubyClass klass = (RubyClass) RubyJdbcConnection.getJdbcConnection(context.runtime).getConstantAt("ResultRow");
+        return new ResultRow(context.runtime, klass, columnIndexes, columnNames, (RubyArray) values.eltInternal(row));
+    }
+
     /**
      * Does the heavy lifting of turning the JDBC objects into Ruby objects
      * @param context current thread context
      * @param resultSet the set of results we are converting
+     * @param converters (resolved) converters for each column
      * @throws SQLException throws!
      */
-    private void processResultSet(final ThreadContext context, final ResultSet resultSet) throws SQLException {
-        Ruby runtime = context.runtime;
+    private void processResultSet(final ThreadContext context, final ResultSet resultSet,
+        final ColumnConverter[] converters) throws SQLException {
         int columnCount = columnNames.length;
 
         while (resultSet.next()) {
             final IRubyObject[] row = new IRubyObject[columnCount];
 
             for (int i = 0; i < columnCount; i++) {
-                row[i] = connection.jdbcToRuby(context, runtime, i + 1, columnTypes[i], resultSet); // Result Set is 1 based
+                row[i] = converters[i].convert(context, resultSet, i + 1); // Result Set is 1 based
             }
 
             values.append(RubyArray.newArrayNoCopy(context.runtime, row));
@@ -125,6 +149,7 @@ public class JdbcResult extends RubyObject {
         final RubyClass Result = RubyJdbcConnection.getResult(context.runtime);
         // FIXME: Is this broken?  no copy of an array AR::Result can modify?  or should it be frozen?
         final RubyArray rubyColumnNames = RubyArray.newArrayNoCopy(context.runtime, getColumnNames());
-        return Result.newInstance(context, rubyColumnNames, values, columnTypeMap(context), Block.NULL_BLOCK);
+        final IRubyObject result = Result.newInstance(context, rubyColumnNames, values, columnTypeMap(context), Block.NULL_BLOCK);
+        return RubyJdbcConnection.setStringDictionaryStats(context, result, columns, converters);
     }
 }
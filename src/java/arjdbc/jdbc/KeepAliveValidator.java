@@ -0,0 +1,137 @@
+package arjdbc.jdbc;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jruby.RubyThread;
+import org.jruby.runtime.ThreadContext;
+
+/**
+ * Validates (idle) connections in the background, enabled using
+ * <code>connection_keep_alive: seconds</code>.
+ *
+ * Connections used (or validated) within the keep-alive interval are considered
+ * alive without a round-trip to the database, idle ones get validated (pinged)
+ * in the background (see {@link Scheduler#background()}). A connection that
+ * failed validation is reported as not active (so it gets re-connected by AR).
+ *
+ * @see RubyJdbcConnection#active_p(org.jruby.runtime.ThreadContext)
+ */
+final class KeepAliveValidator {
+
+    /**
+     * Held while the connection is being used, background validation is skipped
+     * for connections in use.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final long interval; // ms
+    private volatile long lastValid; // last successful use or validation
+    private volatile boolean valid = true;
+    private volatile ScheduledFuture<?> validation;
+
+    private KeepAliveValidator(final long interval) {
+        this.interval = interval;
+        this.lastValid = System.currentTimeMillis();
+    }
+
+    /**
+     * @param connection
+     * @param interval (in milliseconds)
+     * @return a validator scheduled to (periodically) validate the connection
+     */
+    static KeepAliveValidator start(final RubyJdbcConnection connection, final long interval) {
+        final KeepAliveValidator validator = new KeepAliveValidator(interval);
+        final WeakReference<RubyJdbcConnection> reference = new WeakReference<RubyJdbcConnection>(connection);
+        final long period = Math.max(1, interval / 2);
+        validator.validation = Scheduler.background().scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                final RubyJdbcConnection connection = reference.get();
+                if ( connection == null ) validator.stop(); // garbage collected
+                else validator.validate(connection);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+        return validator;
+    }
+
+    private void validate(final RubyJdbcConnection connection) {
+        if ( ! valid || System.currentTimeMillis() - lastValid < interval ) return; // recently used
+        if ( ! lock.tryLock() ) return; // in use
+        try {
+            final Boolean result = connection.validateIdleConnection();
+            if ( result != null ) validated(result);
+        }
+        catch (RuntimeException e) {
+            RubyJdbcConnection.debugMessage(connection.getRuntime(), "keep-alive validation failed: ", e);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Locks the connection for use, waiting for a (background) validation in
+     * progress to complete. The wait is interruptible by <code>Thread#raise</code>
+     * (e.g. <code>Timeout.timeout</code>) and <code>Thread#kill</code>.
+     */
+    void lock(final ThreadContext context) {
+        if ( lock.tryLock() ) return;
+        final RubyThread thread = context.getThread();
+        while ( true ) {
+            try {
+                thread.executeTask(context, lock, LOCK); return;
+            }
+            catch (InterruptedException e) {
+                context.pollThreadEvents(); // Thread#raise/kill
+            }
+        }
+    }
+
+    void unlock() {
+        lock.unlock();
+    }
+
+    private static final RubyThread.Task<ReentrantLock, Object> LOCK = new RubyThread.Task<ReentrantLock, Object>() {
+        public Object run(ThreadContext context, ReentrantLock lock) throws InterruptedException {
+            lock.lockInterruptibly(); return null;
+        }
+        public void wakeup(RubyThread thread, ReentrantLock lock) {
+            thread.getNativeThread().interrupt();
+        }
+    };
+
+    /**
+     * @return the keep-alive interval (in milliseconds)
+     */
+    long getInterval() {
+        return interval;
+    }
+
+    /**
+     * Marks the connection as (successfully) used.
+     */
+    void used() {
+        lastValid = System.currentTimeMillis(); valid = true;
+    }
+
+    void validated(final boolean valid) {
+        if ( valid ) used();
+        else this.valid = false;
+    }
+
+    /**
+     * @return whether the connection is valid, null if unknown (not used or validated recently)
+     */
+    Boolean isValid() {
+        if ( ! valid ) return Boolean.FALSE;
+        return System.currentTimeMillis() - lastValid < interval * 2 ? Boolean.TRUE : null;
+    }
+
+    void stop() {
+        final ScheduledFuture<?> validation = this.validation;
+        if ( validation != null ) validation.cancel(false);
+    }
+
+}
@@ -0,0 +1,61 @@
+package arjdbc.jdbc;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites a (parameterized) single row INSERT into a multi-row one :
+ * <code>INSERT INTO t (a, b) VALUES (?, ?)</code> into
+ * <code>INSERT INTO t (a, b) VALUES (?, ?), (?, ?), ...</code>
+ *
+ * Only simple statements are rewritten, the row (VALUES) tuple needs to be the
+ * last thing in the statement (no RETURNING, ON CONFLICT etc.) and must not
+ * contain nested parentheses or quotes.
+ *
+ * @see RubyJdbcConnection#execute_batch
+ */
+final class MultiRowInsert {
+
+    private static final Pattern SINGLE_ROW_INSERT = Pattern.compile(
+        "^(\\s*INSERT\\s+INTO\\s+[^(;]+?(?:\\([^()'\";]*\\))?\\s*VALUES\\s*)(\\([^()'\";]*\\))\\s*;?\\s*$",
+        Pattern.CASE_INSENSITIVE | Pattern.DOTALL
+    );
+
+    private final String head; // INSERT INTO t (a, b) VALUES
+    private final String row; // (?, ?)
+    final int parameterCount; // per row
+
+    private MultiRowInsert(final String head, final String row, final int parameterCount) {
+        this.head = head; this.row = row;
+        this.parameterCount = parameterCount;
+    }
+
+    /**
+     * @param sql the (single row) INSERT statement
+     * @return null if the statement can not be rewritten
+     */
+    static MultiRowInsert parse(final String sql) {
+        final Matcher matcher = SINGLE_ROW_INSERT.matcher(sql);
+        if ( ! matcher.matches() ) return null;
+
+        final String row = matcher.group(2);
+        int parameterCount = 0;
+        for ( int i = 0; i < row.length(); i++ ) {
+            if ( row.charAt(i) == '?' ) parameterCount++;
+        }
+        if ( parameterCount == 0 ) return null;
+        return new MultiRowInsert(matcher.group(1), row, parameterCount);
+    }
+
+    /**
+     * @param rows the number of rows (VALUES tuples)
+     * @return the multi-row INSERT SQL
+     */
+    String toSql(final int rows) {
+        final StringBuilder sql = new StringBuilder(head.length() + rows * (row.length() + 2));
+        sql.append(head).append(row);
+        for ( int i = 1; i < rows; i++ ) sql.append(", ").append(row);
+        return sql.toString();
+    }
+
+}
@@ -0,0 +1,579 @@
+package arjdbc.jdbc;
+
+import java.io.PrintStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jruby.Finalizable;
+import org.jruby.Ruby;
+import org.jruby.RubyThread;
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+
+/**
+ * A (JVM-level) pool of physical connections, enabled using <code>jdbc_pool: true</code>.
+ *
+ * Connections handed out are proxies, closing them returns the physical connection
+ * to the pool (as with pooled JNDI data-sources). Pools are shared among all
+ * (AR) connections using the same driver, URL, credentials and pool settings.
+ *
+ * Borrowing and returning is lock-free (a LIFO deque of idle connections, with
+ * a semaphore bounding the checked out count), a single daemon thread takes
+ * care of retiring expired or (too long) idle connections, keeping the pool
+ * filled with <code>jdbc_pool_min_idle</code> connections and leak detection.
+ *
+ * @see RubyJdbcConnection#setConnectionFactory(ConnectionFactory)
+ */
+final class PooledConnectionFactory implements ConnectionFactory {
+
+    /**
+     * Connections used (returned) within this window are not validated on checkout.
+     */
+    private static final long VALIDATION_BYPASS = 500; // ms
+
+    private static final ConcurrentHashMap<List<?>, PooledConnectionFactory> pools =
+        new ConcurrentHashMap<List<?>, PooledConnectionFactory>();
+
+    private final Ruby runtime;
+    private final ConnectionFactory factory;
+    private final Settings settings;
+    private final List<?> key;
+
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<PooledConnection>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicInteger total = new AtomicInteger();
+    private final Semaphore permits;
+
+    private final Set<Handle> borrowed = Collections.newSetFromMap(new ConcurrentHashMap<Handle, Boolean>());
+    private final ReferenceQueue<Connection> unreachable = new ReferenceQueue<Connection>();
+
+    private volatile ScheduledFuture<?> housekeeping;
+    private volatile boolean closed;
+    private Finalizable tearDown; // closes the pool on runtime tear-down
+
+    private PooledConnectionFactory(final Ruby runtime, final ConnectionFactory factory,
+        final Settings settings, final List<?> key) {
+        this.runtime = runtime;
+        this.factory = factory;
+        this.settings = settings;
+        this.key = key;
+        this.permits = new Semaphore(settings.maxSize);
+    }
+
+    /**
+     * @param runtime
+     * @param factory the (physical) connection factory
+     * @param settings
+     * @return a (shared) pool for the given factory and settings
+     */
+    static PooledConnectionFactory getPool(final Ruby runtime,
+        final DriverConnectionFactory factory, final Settings settings) {
+        final DriverWrapper driver = factory.getDriverWrapper();
+        // credentials (properties might contain a password as well) are only kept as a digest
+        final List<?> key = Arrays.asList(runtime, driver.getDriverInstance().getClass(), factory.url,
+            digest(factory.username, factory.password, driver.getProperties()), settings);
+
+        PooledConnectionFactory pool = pools.get(key);
+        if ( pool == null ) {
+            final PooledConnectionFactory newPool = new PooledConnectionFactory(runtime, factory, settings, key);
+            pool = pools.putIfAbsent(key, newPool);
+            if ( pool == null ) ( pool = newPool ).start();
+        }
+        return pool;
+    }
+
+    private static String digest(final String username, final String password, final Properties properties) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JVM supports SHA-256
+        }
+        final StringBuilder str = new StringBuilder();
+        str.append(username).append('\0').append(password);
+        if ( properties != null ) { // sorted so that equal properties give the same digest
+            for ( final Map.Entry<Object, Object> entry : new TreeMap<Object, Object>(properties).entrySet() ) {
+                str.append('\0').append(entry.getKey()).append('=').append(entry.getValue());
+            }
+        }
+        final byte[] bytes = digest.digest(str.toString().getBytes(StandardCharsets.UTF_8));
+        return new BigInteger(1, bytes).toString(16);
+    }
+
+    private void start() {
+        runtime.addInternalFinalizer(tearDown = new TearDown(this));
+        final long period = settings.housekeepingPeriod();
+        housekeeping = Scheduler.background().scheduleWithFixedDelay(new Runnable() {
+            public void run() { housekeep(); }
+        }, settings.minIdle > 0 ? 0 : period, period, TimeUnit.MILLISECONDS); // eager fill
+    }
+
+    @Override
+    public Connection newConnection() throws SQLException {
+        if ( closed ) throw new SQLNonTransientConnectionException("connection pool closed", "08003");
+        if ( ! permits.tryAcquire() && ! awaitPermit() ) {
+            throw new SQLTransientConnectionException("could not obtain a connection within " +
+                settings.checkoutTimeout + "ms (pool size: " + settings.maxSize + ", checked out: " +
+                ( settings.maxSize - permits.availablePermits() ) + ")", "08001");
+        }
+        try {
+            PooledConnection entry;
+            while ( ( entry = idle.pollFirst() ) != null ) {
+                idleCount.decrementAndGet();
+                if ( isUsable(entry) ) return borrow(entry);
+                discard(entry);
+            }
+            total.incrementAndGet();
+            return borrow( connect() );
+        }
+        catch (SQLException e) { permits.release(); throw e; }
+        catch (RuntimeException e) { permits.release(); throw e; }
+    }
+
+    /**
+     * Waits (up to the checkout timeout) for a connection to be returned, the wait
+     * is interruptible by <code>Thread#raise</code> (e.g. <code>Timeout.timeout</code>)
+     * and <code>Thread#kill</code>.
+     * @return whether a permit was acquired
+     */
+    private boolean awaitPermit() throws SQLException {
+        final ThreadContext context = runtime.getCurrentContext();
+        try {
+            return context.getThread().executeTask(context, permits, new RubyThread.Task<Semaphore, Boolean>() {
+                public Boolean run(ThreadContext context, Semaphore permits) throws InterruptedException {
+                    return permits.tryAcquire(settings.checkoutTimeout, TimeUnit.MILLISECONDS);
+                }
+                public void wakeup(RubyThread thread, Semaphore permits) {
+                    thread.getNativeThread().interrupt();
+                }
+            });
+        }
+        catch (InterruptedException e) {
+            context.pollThreadEvents(); // Thread#raise/kill
+            throw new SQLTransientConnectionException("interrupted while waiting for a connection", "08001", e);
+        }
+    }
+
+    /**
+     * Connects a new physical connection (expects <code>total</code> to be incremented).
+     */
+    private PooledConnection connect() throws SQLException {
+        try {
+            return new PooledConnection(factory.newConnection(), settings.maxLifetime);
+        }
+        catch (SQLException e) { total.decrementAndGet(); throw e; }
+        catch (RuntimeException e) { total.decrementAndGet(); throw e; }
+    }
+
+    private boolean isUsable(final PooledConnection entry) {
+        final long now = System.currentTimeMillis();
+        if ( now >= entry.expiresAt ) return false;
+        if ( ! entry.validate && now - entry.lastUsed < VALIDATION_BYPASS ) return true;
+        try {
+            return entry.connection.isValid(settings.validationTimeout);
+        }
+        catch (SQLException e) { return false; }
+        catch (RuntimeException e) { return false; }
+    }
+
+    private Connection borrow(final PooledConnection entry) {
+        entry.validate = false;
+        final Handle handle = new Handle(entry);
+        final Connection proxy = (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, handle
+        );
+        handle.reference = new HandleReference(proxy, handle, unreachable);
+        if ( settings.leakDetectionThreshold > 0 ) {
+            handle.checkout = new Exception("connection checked out by " + Thread.currentThread().getName());
+        }
+        borrowed.add(handle);
+        return proxy;
+    }
+
+    private void release(final Handle handle) {
+        borrowed.remove(handle);
+        final PooledConnection entry = handle.entry;
+        try {
+            if ( closed || entry.broken || total.get() > settings.maxSize ||
+                System.currentTimeMillis() >= entry.expiresAt ) {
+                discard(entry); return;
+            }
+            try {
+                entry.reset();
+            }
+            catch (SQLException e) { discard(entry); return; }
+            catch (RuntimeException e) { discard(entry); return; }
+
+            entry.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(entry); idleCount.incrementAndGet();
+        }
+        finally {
+            permits.release();
+        }
+    }
+
+    private void discard(final PooledConnection entry) {
+        total.decrementAndGet();
+        try {
+            Scheduler.background().execute(new Runnable() { // closing might block (e.g. a dead network)
+                public void run() { entry.close(); }
+            });
+        }
+        catch (RuntimeException e) { entry.close(); } // rejected
+    }
+
+    private void fill() {
+        while ( ! closed && idleCount.get() < settings.minIdle ) {
+            final int count = total.get();
+            if ( count >= settings.maxSize ) return;
+            if ( ! total.compareAndSet(count, count + 1) ) continue;
+
+            final PooledConnection entry;
+            try {
+                entry = connect();
+            }
+            catch (SQLException e) {
+                RubyJdbcConnection.debugMessage(runtime, "failed to fill connection pool: ", e); return;
+            }
+            catch (RuntimeException e) {
+                RubyJdbcConnection.debugMessage(runtime, "failed to fill connection pool: ", e); return;
+            }
+            entry.lastUsed = System.currentTimeMillis();
+            idle.offerLast(entry); idleCount.incrementAndGet();
+        }
+    }
+
+    private void housekeep() {
+        try {
+            final long now = System.currentTimeMillis();
+            // retire expired and (too long) idle connections, oldest are at the tail :
+            for ( final PooledConnection entry : idle ) {
+                final boolean expired = now >= entry.expiresAt;
+                if ( expired || ( settings.idleTimeout > 0 && now - entry.lastUsed > settings.idleTimeout &&
+                    idleCount.get() > settings.minIdle ) ) {
+                    if ( idle.remove(entry) ) { idleCount.decrementAndGet(); discard(entry); }
+                }
+            }
+            detectLeaks(now);
+            fill();
+        }
+        catch (RuntimeException e) {
+            RubyJdbcConnection.debugMessage(runtime, "connection pool housekeeping failed: ", e);
+        }
+    }
+
+    private void detectLeaks(final long now) {
+        // connections (handles) that got garbage collected without being closed :
+        Reference<? extends Connection> reference;
+        while ( ( reference = unreachable.poll() ) != null ) {
+            final Handle handle = ((HandleReference) reference).handle;
+            if ( ! handle.closed && borrowed.remove(handle) ) {
+                handle.closed = true;
+                warn("connection leaked (not closed before being garbage collected), reclaimed", handle);
+                handle.entry.broken = true; // state unknown (might be within a transaction)
+                release(handle);
+            }
+        }
+        if ( settings.leakDetectionThreshold > 0 ) {
+            for ( final Handle handle : borrowed ) {
+                if ( ! handle.reported && now - handle.checkedOut > settings.leakDetectionThreshold ) {
+                    handle.reported = true;
+                    warn("possible connection leak, checked out for " + ( now - handle.checkedOut ) + "ms", handle);
+                }
+            }
+        }
+    }
+
+    private void warn(final String message, final Handle handle) {
+        final PrintStream err = runtime.getErr();
+        err.print("ArJdbc: "); err.println(message + " (" + handle.entry.connection + ")");
+        if ( handle.checkout != null ) handle.checkout.printStackTrace(err);
+    }
+
+    /**
+     * Closes the pool, idle connections get closed right away while checked out
+     * ones once they're returned.
+     */
+    void close() {
+        closed = true;
+        pools.remove(key, this);
+        final Finalizable tearDown = this.tearDown;
+        if ( tearDown != null ) runtime.removeInternalFinalizer(tearDown);
+        final ScheduledFuture<?> housekeeping = this.housekeeping;
+        if ( housekeeping != null ) housekeeping.cancel(false);
+        PooledConnection entry;
+        while ( ( entry = idle.pollFirst() ) != null ) {
+            idleCount.decrementAndGet(); total.decrementAndGet(); entry.close();
+        }
+    }
+
+    int getSize() { return total.get(); }
+
+    int getIdleSize() { return idleCount.get(); }
+
+    @Override
+    public String toString() {
+        return "PooledConnectionFactory{size=" + total.get() + ", idle=" + idleCount.get() +
+               ", checkedOut=" + borrowed.size() + ", " + settings + '}';
+    }
+
+    private static boolean isBroken(final SQLException e) {
+        if ( e instanceof SQLNonTransientConnectionException || e instanceof SQLRecoverableException ) {
+            return true;
+        }
+        final String state = e.getSQLState();
+        return state != null && state.startsWith("08"); // connection exception
+    }
+
+    /**
+     * A physical (pooled) connection.
+     */
+    private static final class PooledConnection {
+
+        final Connection connection;
+        final long expiresAt;
+        volatile long lastUsed;
+        volatile boolean validate; // on next checkout
+        volatile boolean broken;
+
+        private final boolean autoCommit, readOnly;
+        private final int transactionIsolation;
+        private final String catalog;
+        volatile boolean dirty;
+
+        PooledConnection(final Connection connection, final long maxLifetime) throws SQLException {
+            this.connection = connection;
+            final long now = System.currentTimeMillis();
+            // up to 2.5% variance so that connections do not all expire (and re-connect) at once
+            this.expiresAt = maxLifetime > 0 ?
+                now + maxLifetime - ThreadLocalRandom.current().nextLong(maxLifetime / 40 + 1) : Long.MAX_VALUE;
+            this.lastUsed = now;
+            try {
+                this.autoCommit = connection.getAutoCommit();
+                this.readOnly = connection.isReadOnly();
+                this.transactionIsolation = connection.getTransactionIsolation();
+                this.catalog = connection.getCatalog();
+            }
+            catch (SQLException e) { close(); throw e; }
+        }
+
+        /**
+         * Resets the state (possibly) changed while checked out.
+         */
+        void reset() throws SQLException {
+            final boolean currentAutoCommit = connection.getAutoCommit();
+            if ( ! currentAutoCommit ) connection.rollback(); // an unfinished transaction
+            if ( ! dirty && currentAutoCommit == autoCommit ) return;
+            if ( currentAutoCommit != autoCommit ) connection.setAutoCommit(autoCommit);
+            if ( connection.isReadOnly() != readOnly ) connection.setReadOnly(readOnly);
+            if ( connection.getTransactionIsolation() != transactionIsolation ) {
+                connection.setTransactionIsolation(transactionIsolation);
+            }
+            if ( catalog != null && ! catalog.equals(connection.getCatalog()) ) connection.setCatalog(catalog);
+            connection.clearWarnings();
+            dirty = false;
+        }
+
+        void close() {
+            try { connection.close(); }
+            catch (Exception e) { /* NOOP */ }
+        }
+
+    }
+
+    /**
+     * Closes the pool when the runtime gets torn down.
+     */
+    private static final class TearDown implements Finalizable {
+
+        private final PooledConnectionFactory pool;
+
+        TearDown(final PooledConnectionFactory pool) { this.pool = pool; }
+
+        @Override // Finalizable (JRuby's tear-down hook) not Object#finalize
+        @SuppressWarnings("deprecation")
+        public void finalize() { pool.close(); }
+
+    }
+
+    private static final class HandleReference extends WeakReference<Connection> {
+
+        final Handle handle;
+
+        HandleReference(final Connection proxy, final Handle handle, final ReferenceQueue<Connection> queue) {
+            super(proxy, queue);
+            this.handle = handle;
+        }
+
+    }
+
+    /**
+     * The (logical) connection handed out, delegating to the physical one.
+     */
+    private final class Handle implements InvocationHandler {
+
+        final PooledConnection entry;
+        final long checkedOut = System.currentTimeMillis();
+        Exception checkout; // for leak reporting
+        Reference<Connection> reference; // keeps the (weak) reference reachable
+        volatile boolean closed, reported;
+
+        Handle(final PooledConnection entry) { this.entry = entry; }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final String name = method.getName();
+            switch ( name ) {
+                case "close" :
+                    if ( ! closed ) {
+                        synchronized (this) {
+                            if ( closed ) return null;
+                            closed = true;
+                        }
+                        reference.clear();
+                        release(this);
+                    }
+                    return null;
+                case "isClosed" :
+                    if ( closed ) return Boolean.TRUE;
+                    break;
+                case "isValid" :
+                    if ( closed ) return Boolean.FALSE;
+                    break;
+                case "equals" : return proxy == args[0];
+                case "hashCode" : return System.identityHashCode(proxy);
+                case "toString" : return "Pooled(" + entry.connection + ")";
+                case "isWrapperFor" :
+                    if ( ((Class<?>) args[0]).isInstance(proxy) ) return Boolean.TRUE;
+                    if ( ! closed && ((Class<?>) args[0]).isInstance(entry.connection) ) return Boolean.TRUE;
+                    break;
+                case "unwrap" : // the physical connection is only exposed for driver specific APIs
+                    if ( ((Class<?>) args[0]).isInstance(proxy) ) return proxy;
+                    if ( ! closed && ((Class<?>) args[0]).isInstance(entry.connection) ) {
+                        entry.validate = true; // might get closed (or changed) behind our back
+                        return entry.connection;
+                    }
+                    break;
+                case "setAutoCommit" : case "setReadOnly" :
+                case "setTransactionIsolation" : case "setCatalog" :
+                    entry.dirty = true;
+                    break;
+            }
+            if ( closed ) throw new SQLNonTransientConnectionException("connection closed", "08003");
+            try {
+                return method.invoke(entry.connection, args);
+            }
+            catch (InvocationTargetException e) {
+                final Throwable cause = e.getCause();
+                if ( cause instanceof SQLException ) {
+                    if ( isBroken((SQLException) cause) ) entry.broken = true;
+                    else entry.validate = true;
+                }
+                throw cause;
+            }
+        }
+
+    }
+
+    /**
+     * Pool settings, as configured in the database.yml :
+     *
+     * <ul>
+     *   <li><code>jdbc_pool_size</code> max connections (defaults to AR's <code>pool</code> size)</li>
+     *   <li><code>jdbc_pool_min_idle</code> idle connections to keep around (eagerly filled) defaults to 0</li>
+     *   <li><code>jdbc_pool_checkout_timeout</code> (seconds) defaults to AR's <code>checkout_timeout</code></li>
+     *   <li><code>jdbc_pool_max_lifetime</code> (seconds) defaults to 30 minutes</li>
+     *   <li><code>jdbc_pool_idle_timeout</code> (seconds) defaults to 10 minutes</li>
+     *   <li><code>jdbc_pool_leak_detection_threshold</code> (seconds) warns when a connection is
+     *       checked out for longer, disabled by default</li>
+     * </ul>
+     */
+    static final class Settings {
+
+        final int maxSize, minIdle;
+        final long checkoutTimeout, maxLifetime, idleTimeout, leakDetectionThreshold; // ms
+        final int validationTimeout; // seconds
+
+        Settings(final ThreadContext context, final RubyJdbcConnection connection) {
+            final int poolSize = ConnectionSettings.getInt(context, connection, "pool", 5);
+            this.maxSize = Math.max(1, ConnectionSettings.getInt(context, connection, "jdbc_pool_size", poolSize));
+            this.minIdle = Math.min(maxSize, ConnectionSettings.getInt(context, connection, "jdbc_pool_min_idle", 0));
+
+            String key = "jdbc_pool_checkout_timeout";
+            IRubyObject value = connection.getConfigValue(context, key);
+            if ( value == context.nil ) value = connection.getConfigValue(context, key = "checkout_timeout");
+            this.checkoutTimeout = value == context.nil ? 5000 : ConnectionSettings.toTimeoutMillis(context, key, value);
+
+            value = connection.getConfigValue(context, key = "jdbc_pool_max_lifetime");
+            this.maxLifetime = value == context.nil ? 1800 * 1000 : ConnectionSettings.toTimeoutMillis(context, key, value);
+            value = connection.getConfigValue(context, key = "jdbc_pool_idle_timeout");
+            this.idleTimeout = value == context.nil ? 600 * 1000 : ConnectionSettings.toTimeoutMillis(context, key, value);
+            this.leakDetectionThreshold = ConnectionSettings.getTimeoutMillis(context, connection, "jdbc_pool_leak_detection_threshold");
+
+            this.validationTimeout = ConnectionSettings.getInt(context, connection, "connection_alive_timeout", 5);
+        }
+
+        long housekeepingPeriod() {
+            long period = 30 * 1000;
+            if ( idleTimeout > 0 ) period = Math.min(period, idleTimeout / 2);
+            if ( maxLifetime > 0 ) period = Math.min(period, maxLifetime / 2);
+            if ( leakDetectionThreshold > 0 ) period = Math.min(period, leakDetectionThreshold / 2);
+            return Math.max(100, period);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if ( this == obj ) return true;
+            if ( ! ( obj instanceof Settings ) ) return false;
+            final Settings that = (Settings) obj;
+            return maxSize == that.maxSize && minIdle == that.minIdle &&
+                   checkoutTimeout == that.checkoutTimeout && maxLifetime == that.maxLifetime &&
+                   idleTimeout == that.idleTimeout && leakDetectionThreshold == that.leakDetectionThreshold &&
+                   validationTimeout == that.validationTimeout;
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(new long[] { maxSize, minIdle, checkoutTimeout, maxLifetime,
+                idleTimeout, leakDetectionThreshold, validationTimeout });
+        }
+
+        @Override
+        public String toString() {
+            return "maxSize=" + maxSize + ", minIdle=" + minIdle + ", checkoutTimeout=" + checkoutTimeout +
+                   ", maxLifetime=" + maxLifetime + ", idleTimeout=" + idleTimeout +
+                   ", leakDetectionThreshold=" + leakDetectionThreshold;
+        }
+
+    }
+
+}
@@ -0,0 +1,212 @@
+package arjdbc.jdbc;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jruby.Ruby;
+import org.jruby.RubyClass;
+import org.jruby.RubyException;
+import org.jruby.RubyNumeric;
+import org.jruby.RubyObject;
+import org.jruby.RubyProc;
+import org.jruby.RubyThread;
+import org.jruby.anno.JRubyMethod;
+import org.jruby.exceptions.RaiseException;
+import org.jruby.runtime.Block;
+import org.jruby.runtime.ObjectAllocator;
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+
+/**
+ * The (pending) value of work (usually a query) executed in the background,
+ * on a shared executor. Uses virtual threads (Java 21+) when available,
+ * otherwise a pool of (daemon) threads sized by the <code>arjdbc.async.threads</code>
+ * system property (defaults to 16).
+ *
+ * <pre>
+ *   future = JdbcConnection::QueryFuture.execute { pool.with_connection { |c| c.exec_query(sql) } }
+ *   future.value # waits for the result (re-raises errors)
+ * </pre>
+ *
+ * NOTE: work executed in the background should not share a (JDBC) connection
+ * with the thread that created the future.
+ */
+public class QueryFuture extends RubyObject {
+
+    private static final long serialVersionUID = -3188734271203640785L;
+
+    private static volatile ExecutorService executor;
+
+    private final Future<IRubyObject> future;
+
+    static RubyClass createQueryFutureClass(final Ruby runtime, final RubyClass jdbcConnection) {
+        final RubyClass QueryFuture = jdbcConnection.defineClassUnder("QueryFuture", runtime.getObject(), ObjectAllocator.NOT_ALLOCATABLE_ALLOCATOR);
+        QueryFuture.defineAnnotatedMethods(QueryFuture.class);
+        return QueryFuture;
+    }
+
+    private QueryFuture(final Ruby runtime, final RubyClass metaClass, final Future<IRubyObject> future) {
+        super(runtime, metaClass);
+        this.future = future;
+    }
+
+    /**
+     * @param context
+     * @param self
+     * @param value
+     * @return a (completed) future with the given value
+     */
+    @JRubyMethod(name = "completed", meta = true)
+    public static IRubyObject completed(final ThreadContext context, final IRubyObject self, final IRubyObject value) {
+        return newCompleted((RubyClass) self, value, null);
+    }
+
+    /**
+     * @param context
+     * @param self
+     * @param error
+     * @return a (completed) future, re-raising the given error from <code>value</code>
+     */
+    @JRubyMethod(name = "failed", meta = true)
+    public static IRubyObject failed(final ThreadContext context, final IRubyObject self, final IRubyObject error) {
+        if ( ! ( error instanceof RubyException ) ) {
+            throw context.runtime.newTypeError(error, context.runtime.getException());
+        }
+        return newCompleted((RubyClass) self, null, (RubyException) error);
+    }
+
+    private static QueryFuture newCompleted(final RubyClass metaClass, final IRubyObject value, final RubyException error) {
+        final FutureTask<IRubyObject> future = new FutureTask<>(new Callable<IRubyObject>() {
+            public IRubyObject call() {
+                if ( error != null ) throw new RaiseException(error);
+                return value;
+            }
+        });
+        future.run(); // completes right away
+        return new QueryFuture(metaClass.getRuntime(), metaClass, future);
+    }
+
+    /**
+     * Executes the given block in the background.
+     * @param context
+     * @param self
+     * @param block
+     * @return a future
+     */
+    @JRubyMethod(name = "execute", meta = true)
+    public static IRubyObject execute(final ThreadContext context, final IRubyObject self, final Block block) {
+        if ( ! block.isGiven() ) throw context.runtime.newArgumentError("no block given");
+
+        final Ruby runtime = context.runtime;
+        final RubyProc proc = RubyProc.newProc(runtime, block, Block.Type.PROC);
+        final Future<IRubyObject> future = getExecutor().submit(new Callable<IRubyObject>() {
+            public IRubyObject call() {
+                return proc.call(runtime.getCurrentContext(), IRubyObject.NULL_ARRAY);
+            }
+        });
+        return new QueryFuture(runtime, (RubyClass) self, future);
+    }
+
+    /**
+     * Waits for the work to complete, errors raised in the background are re-raised.
+     * @param context
+     * @param args an optional timeout (in seconds)
+     * @return the value or nil if it did not complete within the given timeout
+     */
+    @JRubyMethod(name = "value", optional = 1)
+    public IRubyObject value(final ThreadContext context, final IRubyObject[] args) {
+        final long timeout = args.length > 0 && args[0] != context.nil ?
+                (long) ( RubyNumeric.num2dbl(args[0]) * 1000 ) : -1;
+        try {
+            // interruptible - Thread#raise/kill will wake us up
+            return context.getThread().executeTask(context, future, new RubyThread.Task<Future<IRubyObject>, IRubyObject>() {
+                public IRubyObject run(ThreadContext context, Future<IRubyObject> future) throws InterruptedException {
+                    try {
+                        return timeout < 0 ? future.get() : future.get(timeout, TimeUnit.MILLISECONDS);
+                    }
+                    catch (ExecutionException e) {
+                        throw rethrow(context, e.getCause());
+                    }
+                    catch (TimeoutException e) {
+                        return context.nil;
+                    }
+                }
+                public void wakeup(RubyThread thread, Future<IRubyObject> future) {
+                    thread.getNativeThread().interrupt();
+                }
+            });
+        }
+        catch (CancellationException e) {
+            throw context.runtime.newRaiseException(context.runtime.getStandardError(), "cancelled");
+        }
+        catch (InterruptedException e) {
+            context.pollThreadEvents(); // Thread#raise/kill
+            throw context.runtime.newThreadError("interrupted waiting for value");
+        }
+    }
+
+    @JRubyMethod(name = { "complete?", "done?" })
+    public IRubyObject complete_p(final ThreadContext context) {
+        return context.runtime.newBoolean(future.isDone());
+    }
+
+    /**
+     * Cancels the work (interrupting it if already running).
+     * @param context
+     * @return true if cancelled, false if it already completed
+     */
+    @JRubyMethod(name = "cancel")
+    public IRubyObject cancel(final ThreadContext context) {
+        return context.runtime.newBoolean(future.cancel(true));
+    }
+
+    private static RuntimeException rethrow(final ThreadContext context, final Throwable error) {
+        if ( error instanceof RaiseException ) return (RaiseException) error;
+        if ( error instanceof RuntimeException ) return (RuntimeException) error;
+        if ( error instanceof Error ) throw (Error) error;
+        return RubyJdbcConnection.wrapException(context, context.runtime.getRuntimeError(), error);
+    }
+
+    static ExecutorService getExecutor() {
+        ExecutorService executor = QueryFuture.executor;
+        if ( executor == null ) {
+            synchronized (QueryFuture.class) {
+                executor = QueryFuture.executor;
+                if ( executor == null ) QueryFuture.executor = executor = newExecutor();
+            }
+        }
+        return executor;
+    }
+
+    private static ExecutorService newExecutor() {
+        final String threads = System.getProperty("arjdbc.async.threads");
+        if ( threads == null && ! Boolean.getBoolean("arjdbc.async.virtual_threads.disabled") ) {
+            try { // Java 21+
+                final Method newVirtualThreadPerTaskExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+            }
+            catch (NoSuchMethodException e) { /* not available */ }
+            catch (Exception e) { /* fallback to a thread pool */ }
+        }
+        final int size = threads == null ? 16 : Integer.parseInt(threads);
+        return Executors.newFixedThreadPool(size, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+            public Thread newThread(final Runnable task) {
+                final Thread thread = new Thread(task, "arjdbc-async-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+}
@@ -0,0 +1,134 @@
+package arjdbc.jdbc;
+
+import org.jruby.Ruby;
+import org.jruby.RubyArray;
+import org.jruby.RubyClass;
+import org.jruby.RubyHash;
+import org.jruby.RubyNumeric;
+import org.jruby.RubyObject;
+import org.jruby.RubyString;
+import org.jruby.anno.JRubyMethod;
+import org.jruby.runtime.Block;
+import org.jruby.runtime.ObjectAllocator;
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+
+/**
+ * A (read-only) hash-like view of a single result row, values are read
+ * through from the result's row array instead of being copied into a hash.
+ *
+ * @see JdbcResult#newRow(ThreadContext, int)
+ */
+public class ResultRow extends RubyObject {
+
+    private static final long serialVersionUID = -5819743920364125528L;
+
+    private final RubyHash columnIndexes; // column name -> index (shared by all rows of a result)
+    private final RubyString[] columnNames;
+    private final RubyArray values;
+
+    static RubyClass createResultRowClass(final Ruby runtime, final RubyClass jdbcConnection) {
+        final RubyClass ResultRow = jdbcConnection.defineClassUnder("ResultRow", runtime.getObject(), ObjectAllocator.NOT_ALLOCATABLE_ALLOCATOR);
+        ResultRow.defineAnnotatedMethods(ResultRow.class);
+        ResultRow.includeModule(runtime.getEnumerable());
+        return ResultRow;
+    }
+
+    ResultRow(final Ruby runtime, final RubyClass metaClass,
+        final RubyHash columnIndexes, final RubyString[] columnNames, final RubyArray values) {
+        super(runtime, metaClass);
+        this.columnIndexes = columnIndexes;
+        this.columnNames = columnNames;
+        this.values = values;
+    }
+
+    /**
+     * @param columnNames result column names
+     * @return a (column name to index) mapping to be shared between rows
+     */
+    static RubyHash newColumnIndexes(final Ruby runtime, final RubyString[] columnNames) {
+        final RubyHash indexes = RubyHash.newHash(runtime);
+        for ( int i = 0; i < columnNames.length; i++ ) {
+            indexes.fastASet(columnNames[i], runtime.newFixnum(i)); // last one wins (just like a Hash)
+        }
+        return indexes;
+    }
+
+    private IRubyObject valueAt(final ThreadContext context, final IRubyObject key) {
+        final IRubyObject index = columnIndexes.fastARef(key);
+        if ( index == null ) return null;
+        return values.eltInternal(RubyNumeric.fix2int(index));
+    }
+
+    @JRubyMethod(name = "[]", required = 1)
+    public IRubyObject aref(final ThreadContext context, final IRubyObject key) {
+        final IRubyObject value = valueAt(context, key);
+        return value == null ? context.nil : value;
+    }
+
+    @JRubyMethod(name = "fetch", required = 1, optional = 1)
+    public IRubyObject fetch(final ThreadContext context, final IRubyObject[] args, final Block block) {
+        final IRubyObject value = valueAt(context, args[0]);
+        if ( value != null ) return value;
+        if ( block.isGiven() ) return block.yield(context, args[0]);
+        if ( args.length > 1 ) return args[1];
+        throw context.runtime.newKeyError("key not found: " + args[0].inspect());
+    }
+
+    @JRubyMethod(name = { "key?", "has_key?", "include?", "member?" }, required = 1)
+    public IRubyObject key_p(final ThreadContext context, final IRubyObject key) {
+        return context.runtime.newBoolean(columnIndexes.fastARef(key) != null);
+    }
+
+    @JRubyMethod(name = "keys")
+    public IRubyObject keys(final ThreadContext context) {
+        return columnIndexes.keys();
+    }
+
+    @JRubyMethod(name = "values")
+    public IRubyObject values(final ThreadContext context) {
+        return values.aryDup();
+    }
+
+    @JRubyMethod(name = { "length", "size" })
+    public IRubyObject length(final ThreadContext context) {
+        return columnIndexes.rb_size();
+    }
+
+    @JRubyMethod(name = { "each", "each_pair" })
+    public IRubyObject each(final ThreadContext context, final Block block) {
+        if ( ! block.isGiven() ) return to_hash(context).callMethod(context, "each");
+        for ( int i = 0; i < columnNames.length; i++ ) {
+            block.yield(context, context.runtime.newArray(columnNames[i], values.eltInternal(i)));
+        }
+        return this;
+    }
+
+    /**
+     * @param context current thread context
+     * @return a (newly created) Hash with the row's values
+     */
+    @JRubyMethod(name = { "to_hash", "to_h" })
+    public RubyHash to_hash(final ThreadContext context) {
+        final RubyHash hash = RubyHash.newHash(context.runtime);
+        for ( int i = 0; i < columnNames.length; i++ ) {
+            hash.fastASet(columnNames[i], values.eltInternal(i));
+        }
+        return hash;
+    }
+
+    @JRubyMethod(name = "==", required = 1)
+    public IRubyObject op_equal(final ThreadContext context, final IRubyObject other) {
+        if ( other == this ) return context.runtime.getTrue();
+        if ( other instanceof ResultRow ) {
+            return to_hash(context).op_equal(context, ((ResultRow) other).to_hash(context));
+        }
+        return to_hash(context).op_equal(context, other);
+    }
+
+    @JRubyMethod(name = { "inspect", "to_s" })
+    public IRubyObject inspect(final ThreadContext context) {
+        return to_hash(context).inspect(context);
+    }
+
+}
@@ -0,0 +1,45 @@
+package arjdbc.jdbc;
+
+import java.util.TimeZone;
+
+import org.jruby.runtime.ThreadContext;
+
+import arjdbc.util.ZoneOffsets;
+
+/**
+ * Settings a single result gets converted with, resolved when mapping of the
+ * result starts. Every result has its own instance, thus queries performed
+ * while a result is still being mapped (e.g. from a streaming block) do not
+ * change how the remaining rows get converted.
+ *
+ * @see RubyJdbcConnection#getConversionSettings()
+ */
+final class ResultSettings {
+
+    final ConversionSettings conversion;
+
+    private final RubyJdbcConnection connection;
+
+    // default time zone, resolved (once) when first needed
+    private ZoneOffsets zone;
+    private TimeZone javaZone; // zone the driver creates java.sql values in
+
+    ResultSettings(final RubyJdbcConnection connection, final ConversionSettings conversion) {
+        this.connection = connection;
+        this.conversion = conversion;
+    }
+
+    ZoneOffsets getZoneOffsets(final ThreadContext context) {
+        if ( zone == null ) {
+            javaZone = TimeZone.getDefault();
+            zone = connection.resolveZoneOffsets(context);
+        }
+        return zone;
+    }
+
+    TimeZone getJavaZone(final ThreadContext context) {
+        getZoneOffsets(context);
+        return javaZone;
+    }
+
+}
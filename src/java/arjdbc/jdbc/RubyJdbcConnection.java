@@ -34,6 +34,7 @@ import java.io.StringReader;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.Array;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
@@ -51,18 +52,32 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.TimeZone;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 
 import arjdbc.util.StringHelper;
+import org.jcodings.Encoding;
+import org.jcodings.specific.UTF8Encoding;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.jruby.Ruby;
@@ -71,6 +86,7 @@ import org.jruby.RubyBasicObject;
 import org.jruby.RubyBignum;
 import org.jruby.RubyBoolean;
 import org.jruby.RubyClass;
+import org.jruby.RubyEnumerator;
 import org.jruby.RubyException;
 import org.jruby.RubyFixnum;
 import org.jruby.RubyFloat;
@@ -82,9 +98,12 @@ import org.jruby.RubyNumeric;
 import org.jruby.RubyObject;
 import org.jruby.RubyString;
 import org.jruby.RubySymbol;
+import org.jruby.RubyThread;
 import org.jruby.RubyTime;
 import org.jruby.anno.JRubyMethod;
+import org.jruby.exceptions.JumpException;
 import org.jruby.exceptions.RaiseException;
+import org.jruby.exceptions.ThreadKill;
 import org.jruby.ext.bigdecimal.RubyBigDecimal;
 import org.jruby.javasupport.JavaEmbedUtils;
 import org.jruby.javasupport.JavaUtil;
@@ -101,9 +120,11 @@ import org.jruby.util.ByteList;
 import org.jruby.util.SafePropertyAccessor;
 import org.jruby.util.TypeConverter;
 
+import arjdbc.util.DateCache;
 import arjdbc.util.DateTimeUtils;
 import arjdbc.util.ObjectSupport;
 import arjdbc.util.StringCache;
+import arjdbc.util.ZoneOffsets;
 
 import static arjdbc.jdbc.DataSourceConnectionFactory.*;
 import static arjdbc.util.StringHelper.*;
@@ -127,8 +148,15 @@ public class RubyJdbcConnection extends RubyObject {
 
     private boolean lazy = false; // final once set on initialize
     private boolean jndi; // final once set on initialize
-    private boolean configureConnection = true; // final once initialized
-    private int fetchSize = 0; // 0 = JDBC default
+    private transient volatile ConnectionSettings settings; // parsed from config (re-parsed when config changes)
+    private transient StatementCache statementCache; // lazy (prepared statements cached by SQL)
+
+    private long statementTimeoutOverride = -1; // millis, set by with_statement_timeout
+    private transient boolean queryTimeoutSet; // setQueryTimeout has been used (on some statement)
+    private transient KeepAliveValidator keepAlive; // background validation (connection_keep_alive)
+
+    private transient MappingState mapping = new MappingState(null); // not thread-safe
+    private transient volatile MappingState prefetchMapping; // of the (background) prefetching thread
 
     protected RubyJdbcConnection(Ruby runtime, RubyClass metaClass) {
         super(runtime, metaClass);
@@ -144,6 +172,9 @@ public class RubyJdbcConnection extends RubyObject {
         final RubyClass JdbcConnection = getConnectionAdapters(runtime).
             defineClassUnder("JdbcConnection", runtime.getObject(), ALLOCATOR);
         JdbcConnection.defineAnnotatedMethods(RubyJdbcConnection.class);
+        ColumnarRows.createColumnarRowsClass(runtime, JdbcConnection);
+        ResultRow.createResultRowClass(runtime, JdbcConnection);
+        QueryFuture.createQueryFutureClass(runtime, JdbcConnection);
         return JdbcConnection;
     }
 
@@ -374,6 +405,7 @@ public class RubyJdbcConnection extends RubyObject {
     @JRubyMethod(name = "commit")
     public IRubyObject commit(final ThreadContext context) {
         final Connection connection = getConnection(true);
+        final KeepAliveValidator keepAlive = lockConnection(context);
         try {
             if ( ! connection.getAutoCommit() ) {
                 try {
@@ -390,11 +422,13 @@ public class RubyJdbcConnection extends RubyObject {
         catch (SQLException e) {
             return handleException(context, e);
         }
+        finally { unlockConnection(keepAlive); }
     }
 
     @JRubyMethod(name = "rollback")
     public IRubyObject rollback(final ThreadContext context) {
         final Connection connection = getConnection(true);
+        final KeepAliveValidator keepAlive = lockConnection(context);
         try {
             if ( ! connection.getAutoCommit() ) {
                 try {
@@ -410,6 +444,7 @@ public class RubyJdbcConnection extends RubyObject {
         catch (SQLException e) {
             return handleException(context, e);
         }
+        finally { unlockConnection(keepAlive); }
     }
 
     @JRubyMethod(name = "supports_savepoints?")
@@ -430,6 +465,7 @@ public class RubyJdbcConnection extends RubyObject {
     @JRubyMethod(name = "create_savepoint", required = 1)
     public IRubyObject create_savepoint(final ThreadContext context, IRubyObject name) {
         final Connection connection = getConnection(true);
+        final KeepAliveValidator keepAlive = lockConnection(context);
         try {
             connection.setAutoCommit(false);
 
@@ -452,6 +488,7 @@ public class RubyJdbcConnection extends RubyObject {
         catch (SQLException e) {
             return handleException(context, e);
         }
+        finally { unlockConnection(keepAlive); }
     }
 
     @JRubyMethod(name = "rollback_savepoint", required = 1)
@@ -459,6 +496,7 @@ public class RubyJdbcConnection extends RubyObject {
         if (name == context.nil) throw context.runtime.newArgumentError("nil savepoint name given");
 
         final Connection connection = getConnection(true);
+        final KeepAliveValidator keepAlive = lockConnection(context);
         try {
             Savepoint savepoint = getSavepoints(context).get(name);
             if ( savepoint == null ) {
@@ -470,6 +508,7 @@ public class RubyJdbcConnection extends RubyObject {
         catch (SQLException e) {
             return handleException(context, e);
         }
+        finally { unlockConnection(keepAlive); }
     }
 
     @JRubyMethod(name = "release_savepoint", required = 1)
@@ -477,6 +516,7 @@ public class RubyJdbcConnection extends RubyObject {
         if (name == context.nil) throw context.runtime.newArgumentError("nil savepoint name given");
 
         final Connection connection = getConnection(true);
+        final KeepAliveValidator keepAlive = lockConnection(context);
         try {
             Object savepoint = getSavepoints(context).remove(name);
 
@@ -493,6 +533,7 @@ public class RubyJdbcConnection extends RubyObject {
         catch (SQLException e) {
             return handleException(context, e);
         }
+        finally { unlockConnection(keepAlive); }
     }
 
     protected static RuntimeException newSavepointNotSetError(final ThreadContext context, final IRubyObject name, final String op) {
@@ -567,16 +608,8 @@ public class RubyJdbcConnection extends RubyObject {
             throw wrapException(context, e, message);
         }
 
-        IRubyObject value = getConfigValue(context, "configure_connection");
-        if ( value == context.nil ) this.configureConnection = true;
-        else {
-            this.configureConnection = value != context.runtime.getFalse();
-        }
-
-        IRubyObject jdbcFetchSize = getConfigValue(context, "jdbc_fetch_size");
-        if (jdbcFetchSize != context.nil) {
-            this.fetchSize = RubyNumeric.fix2int(jdbcFetchSize);
-        }
+        this.settings = new ConnectionSettings(context, this);
+        updateKeepAlive();
     }
 
     @JRubyMethod(name = "adapter")
@@ -630,7 +663,7 @@ public class RubyJdbcConnection extends RubyObject {
     }
 
     private void configureConnection() {
-        if ( ! configureConnection ) return; // return false;
+        if ( ! getSettings().configureConnection ) return; // return false;
 
         final IRubyObject adapter = getAdapter(); // self.adapter
         if ( adapter != null && ! adapter.isNil() ) {
@@ -699,12 +732,21 @@ public class RubyJdbcConnection extends RubyObject {
         }
         final Connection connection = getConnection();
         if ( connection == null ) return context.runtime.getFalse(); // unlikely
-        return context.runtime.newBoolean( isConnectionValid(context, connection) );
+        final KeepAliveValidator keepAlive = this.keepAlive;
+        if ( keepAlive != null ) {
+            final Boolean valid = keepAlive.isValid(); // recently used or validated (in the background)
+            if ( valid != null ) return context.runtime.newBoolean( valid );
+        }
+        return context.runtime.newBoolean( validateConnection(context, connection) );
     }
 
     @JRubyMethod(name = "disconnect!")
     public synchronized IRubyObject disconnect(final ThreadContext context) {
         setConnection(null); connected = false;
+        final KeepAliveValidator keepAlive = this.keepAlive;
+        if ( keepAlive != null ) { // re-started on reconnect
+            keepAlive.stop(); this.keepAlive = null;
+        }
         return context.nil;
     }
 
@@ -712,6 +754,7 @@ public class RubyJdbcConnection extends RubyObject {
     public synchronized IRubyObject reconnect(final ThreadContext context) {
         try {
             connectImpl( ! lazy ); connected = true;
+            updateKeepAlive();
         }
         catch (SQLException e) {
             debugStackTrace(context, e);
@@ -721,8 +764,14 @@ public class RubyJdbcConnection extends RubyObject {
     }
 
     private void connectImpl(final boolean forceConnection) throws SQLException {
+        if ( connectionFactory instanceof PooledConnectionFactory ) {
+            setConnection(null); // return the pooled connection before checking out another
+        }
         setConnection( forceConnection ? newConnection() : null );
-        if ( forceConnection ) configureConnection();
+        if ( forceConnection ) {
+            configureConnection();
+            if ( keepAlive != null ) keepAlive.used();
+        }
     }
 
     @JRubyMethod(name = "read_only?")
@@ -740,11 +789,13 @@ public class RubyJdbcConnection extends RubyObject {
     @JRubyMethod(name = "read_only=")
     public IRubyObject set_read_only(final ThreadContext context, final IRubyObject flag) {
         final Connection connection = getConnection(true);
+        final KeepAliveValidator keepAlive = lockConnection(context);
         try {
             connection.setReadOnly( flag.isTrue() );
             return context.runtime.newBoolean( connection.isReadOnly() );
         }
         catch (SQLException e) { return handleException(context, e); }
+        finally { unlockConnection(keepAlive); }
     }
 
     @JRubyMethod(name = { "open?" /* "conn?" */ })
@@ -846,19 +897,130 @@ public class RubyJdbcConnection extends RubyObject {
         });
     }
 
+    private static final Pattern QUERY_STATEMENT = Pattern.compile(
+        "^\\s*\\(*\\s*(SELECT|WITH|VALUES|SHOW|EXPLAIN|PRAGMA|CALL|EXEC|DESCRIBE|TABLE)\\b", Pattern.CASE_INSENSITIVE
+    );
+
+    /**
+     * Executes several statements, returning all of their results.
+     *
+     * When the driver supports multiple (;-separated) statements (the
+     * <code>multi_statements</code> config) these are sent in a single round-trip,
+     * otherwise statements that do not return rows are sent as a JDBC batch.
+     * @param context
+     * @param sql a (multi-statement) SQL string or an array of statements
+     * @return an array of results (an update count or a lazily converted result per statement)
+     */
+    @JRubyMethod(name = "execute_multi", required = 1)
+    public IRubyObject execute_multi(final ThreadContext context, final IRubyObject sql) {
+        final String[] queries;
+        if ( sql instanceof RubyArray ) {
+            final RubyArray sqls = (RubyArray) sql;
+            queries = new String[sqls.size()];
+            for ( int i = 0; i < queries.length; i++ ) queries[i] = sqlString(sqls.eltInternal(i));
+        }
+        else {
+            queries = new String[] { sqlString(sql) };
+        }
+        if ( queries.length == 0 ) return RubyArray.newEmptyArray(context.runtime);
+
+        return withConnection(context, new Callable<IRubyObject>() {
+            public IRubyObject call(final Connection connection) throws SQLException {
+                final RubyArray results = RubyArray.newArray(context.runtime, queries.length);
+                Statement statement = null; String query = null;
+                try {
+                    statement = createStatement(context, connection);
+
+                    if ( queries.length == 1 || getSettings().multiStatements ) {
+                        query = joinStatements(queries);
+                        final boolean hasResultSet = execute(statement, query);
+                        mapMultiResults(context, connection, statement, hasResultSet, results);
+                    }
+                    else if ( ! returnsRows(queries) ) {
+                        for ( int i = 0; i < queries.length; i++ ) statement.addBatch(query = queries[i]);
+                        query = null;
+                        results.addAll( updateCounts(context, executeBatch(statement)) );
+                    }
+                    else { // no multi-statement support - one round-trip per statement
+                        for ( int i = 0; i < queries.length; i++ ) {
+                            final boolean hasResultSet = execute(statement, query = queries[i]);
+                            mapMultiResults(context, connection, statement, hasResultSet, results);
+                        }
+                    }
+                    return results;
+                }
+                catch (final SQLException e) {
+                    debugErrorSQL(context, query == null ? joinStatements(queries) : query);
+                    throw e;
+                }
+                finally {
+                    close(statement);
+                }
+            }
+        });
+    }
+
+    private static String joinStatements(final String[] queries) {
+        if ( queries.length == 1 ) return queries[0];
+        final StringBuilder query = new StringBuilder();
+        for ( int i = 0; i < queries.length; i++ ) {
+            if ( i > 0 ) query.append(";\n");
+            query.append(queries[i]);
+        }
+        return query.toString();
+    }
+
+    private static boolean returnsRows(final String[] queries) {
+        for ( final String query : queries ) {
+            if ( QUERY_STATEMENT.matcher(query).lookingAt() ) return true;
+        }
+        return false;
+    }
+
+    private void mapMultiResults(final ThreadContext context, final Connection connection,
+        final Statement statement, boolean hasResultSet, final RubyArray results) throws SQLException {
+        int updateCount = hasResultSet ? -1 : statement.getUpdateCount();
+        while ( hasResultSet || updateCount != -1 ) {
+            if ( hasResultSet ) {
+                final ResultSet resultSet = statement.getResultSet();
+                try {
+                    // result sets get closed on getMoreResults() - values need to be read now
+                    results.append( mapMultiResult(context, connection, resultSet) );
+                }
+                finally { close(resultSet); }
+            }
+            else {
+                results.append( context.runtime.newFixnum(updateCount) );
+            }
+            hasResultSet = statement.getMoreResults();
+            updateCount = hasResultSet ? -1 : statement.getUpdateCount();
+        }
+    }
+
+    /**
+     * Maps a (query) result returned from {@link #execute_multi(ThreadContext, IRubyObject)}.
+     * Values are buffered (column-wise) and only converted to Ruby objects on access.
+     * @param context
+     * @param connection
+     * @param resultSet
+     * @return an <code>ActiveRecord::Result</code>
+     * @throws SQLException
+     */
+    protected IRubyObject mapMultiResult(final ThreadContext context, final Connection connection,
+        final ResultSet resultSet) throws SQLException {
+        final ColumnData[] columns = extractColumns(context, connection, resultSet, false);
+        return mapToColumnarResult(context, resultSet, columns);
+    }
+
     protected Statement createStatement(final ThreadContext context, final Connection connection)
         throws SQLException {
         final Statement statement = connection.createStatement();
-        IRubyObject escapeProcessing = getConfigValue(context, "statement_escape_processing");
+        final ConnectionSettings settings = getSettings();
         // NOTE: disable (driver) escape processing by default, it's not really
         // needed for AR statements ... if users need it they might configure :
-        if ( escapeProcessing == context.nil ) {
-            statement.setEscapeProcessing(false);
-        }
-        else {
-            statement.setEscapeProcessing(escapeProcessing.isTrue());
-        }
-        if (fetchSize != 0) statement.setFetchSize(fetchSize);
+        final Boolean escapeProcessing = settings.escapeProcessing;
+        statement.setEscapeProcessing(escapeProcessing != null && escapeProcessing.booleanValue());
+        if (settings.fetchSize != 0) statement.setFetchSize(settings.fetchSize);
         return statement;
     }
 
@@ -871,7 +1033,7 @@ public class RubyJdbcConnection extends RubyObject {
      * @throws SQLException
      */
     protected boolean doExecute(final Statement statement, final String query) throws SQLException {
-        return statement.execute(query);
+        return execute(statement, query);
     }
 
     protected IRubyObject mapExecuteResult(final ThreadContext context,
@@ -896,7 +1058,7 @@ public class RubyJdbcConnection extends RubyObject {
                 try {
 
                     statement = createStatement(context, connection);
-                    statement.executeUpdate(query, Statement.RETURN_GENERATED_KEYS);
+                    executeUpdate(statement, query, Statement.RETURN_GENERATED_KEYS);
                     return mapGeneratedKeys(context, connection, statement);
 
                 } catch (final SQLException e) {
@@ -919,27 +1081,156 @@ public class RubyJdbcConnection extends RubyObject {
      */
     @JRubyMethod(name = "execute_insert", required = 2)
     public IRubyObject execute_insert(final ThreadContext context, final IRubyObject sql, final IRubyObject binds) {
+        return executePreparedInsert(context, sql, binds, null);
+    }
+
+    /**
+     * Executes an INSERT SQL statement using a (cached) prepared statement
+     * @param context
+     * @param sql
+     * @param binds RubyArray of values to be bound to the query
+     * @param cacheKey the statement cache key (nil to not cache the statement)
+     * @return ActiveRecord::Result
+     * @throws SQLException
+     */
+    @JRubyMethod(name = "execute_insert", required = 3)
+    public IRubyObject execute_insert(final ThreadContext context, final IRubyObject sql, final IRubyObject binds,
+        final IRubyObject cacheKey) {
+        return executePreparedInsert(context, sql, binds, cacheKey == context.nil ? null : cacheKey.toString());
+    }
+
+    private IRubyObject executePreparedInsert(final ThreadContext context, final IRubyObject sql,
+        final IRubyObject binds, final String cacheKey) {
         return withConnection(context, new Callable<IRubyObject>() {
             public IRubyObject call(final Connection connection) throws SQLException {
                 PreparedStatement statement = null;
                 final String query = sqlString(sql);
                 try {
 
-                    statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
+                    statement = cacheKey != null ?
+                            cachedStatement(connection, cacheKey, query, true) :
+                            connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
                     setStatementParameters(context, connection, statement, (RubyArray) binds);
-                    statement.executeUpdate();
+                    executeUpdate(statement);
                     return mapGeneratedKeys(context, connection, statement);
 
                 } catch (final SQLException e) {
                     debugErrorSQL(context, query);
                     throw e;
                 } finally {
-                    close(statement);
+                    if ( cacheKey == null ) close(statement);
+                    else if ( statement != null ) statement.clearParameters();
+                }
+            }
+        });
+    }
+
+    /**
+     * Executes an INSERT returning the (single) generated primary key, unlike
+     * <code>execute_insert</code> no result is built for the generated keys.
+     * @param context
+     * @param args sql, binds (optional), the statement cache key (optional)
+     * @return the generated key (an Integer for integral keys) or nil
+     */
+    @JRubyMethod(name = "execute_insert_pk", required = 1, optional = 2)
+    public IRubyObject execute_insert_pk(final ThreadContext context, final IRubyObject[] args) {
+        final String query = sqlString(args[0]);
+        final RubyArray binds = args.length > 1 && args[1] != context.nil ? (RubyArray) args[1] : null;
+        final String cacheKey = args.length > 2 && args[2] != context.nil ? args[2].toString() : null;
+        return withConnection(context, new Callable<IRubyObject>() {
+            public IRubyObject call(final Connection connection) throws SQLException {
+                final boolean generatedKeys = isInsertPkGeneratedKeys();
+                final boolean prepared = binds != null && ! binds.isEmpty();
+                Statement statement = null;
+                try {
+                    final boolean hasResult;
+                    if ( prepared ) {
+                        final PreparedStatement prepStatement;
+                        if ( cacheKey != null ) {
+                            prepStatement = cachedStatement(connection, cacheKey, query, generatedKeys);
+                        }
+                        else {
+                            prepStatement = generatedKeys ?
+                                connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS) :
+                                connection.prepareStatement(query);
+                        }
+                        statement = prepStatement;
+                        setStatementParameters(context, connection, prepStatement, binds);
+                        hasResult = execute(prepStatement);
+                    }
+                    else {
+                        statement = createStatement(context, connection);
+                        hasResult = generatedKeys ?
+                            execute(statement, query, Statement.RETURN_GENERATED_KEYS) :
+                            execute(statement, query);
+                    }
+                    return mapInsertPk(context, connection, statement, hasResult);
+                }
+                catch (final SQLException e) {
+                    debugErrorSQL(context, query);
+                    throw e;
+                }
+                finally {
+                    if ( ! prepared || cacheKey == null ) close(statement);
+                    else if ( statement != null ) ((PreparedStatement) statement).clearParameters();
                 }
             }
         });
     }
 
+    /**
+     * @return whether <code>execute_insert_pk</code> should request generated keys
+     * (adapters that return the key as the statement's result should return false)
+     */
+    protected boolean isInsertPkGeneratedKeys() {
+        return true;
+    }
+
+    /**
+     * Maps the primary key after an INSERT got executed by <code>execute_insert_pk</code>.
+     * @param context
+     * @param connection
+     * @param statement
+     * @param hasResult whether the statement returned a result set
+     * @return the generated key or nil
+     * @throws SQLException
+     */
+    protected IRubyObject mapInsertPk(final ThreadContext context, final Connection connection,
+        final Statement statement, final boolean hasResult) throws SQLException {
+        if ( ! supportsGeneratedKeys(connection) ) return context.nil;
+        ResultSet genKeys = null;
+        try {
+            genKeys = statement.getGeneratedKeys();
+            return mapPrimaryKey(context, genKeys);
+        }
+        catch (SQLFeatureNotSupportedException e) {
+            return context.nil;
+        }
+        finally { close(genKeys); }
+    }
+
+    /**
+     * @param context
+     * @param resultSet (generated) keys
+     * @return the first column of the first row, integral keys are read as primitive longs
+     * @throws SQLException
+     */
+    protected final IRubyObject mapPrimaryKey(final ThreadContext context, final ResultSet resultSet) throws SQLException {
+        if ( resultSet == null || ! resultSet.next() ) return context.nil;
+        final ResultSetMetaData metaData = resultSet.getMetaData();
+        if ( metaData.getColumnCount() == 0 ) return context.nil;
+        final int type = metaData.getColumnType(1);
+        switch ( type ) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                final long key = resultSet.getLong(1);
+                return resultSet.wasNull() ? context.nil : context.runtime.newFixnum(key);
+        }
+        return jdbcToRuby(context, context.runtime, 1, type, resultSet);
+    }
+
     /**
      * Executes an UPDATE (DELETE) SQL statement
      * @param context
@@ -957,7 +1248,7 @@ public class RubyJdbcConnection extends RubyObject {
                 try {
                     statement = createStatement(context, connection);
 
-                    final int rowCount = statement.executeUpdate(query);
+                    final int rowCount = executeUpdate(statement, query);
                     return context.runtime.newFixnum(rowCount);
                 } catch (final SQLException e) {
                     debugErrorSQL(context, query);
@@ -980,25 +1271,250 @@ public class RubyJdbcConnection extends RubyObject {
      */
     @JRubyMethod(name = {"execute_prepared_update", "execute_prepared_delete"}, required = 2)
     public IRubyObject execute_prepared_update(final ThreadContext context, final IRubyObject sql, final IRubyObject binds) {
+        return executePreparedUpdate(context, sql, binds, null);
+    }
+
+    /**
+     * Executes an UPDATE (DELETE) SQL using a (cached) prepared statement
+     * @param context
+     * @param sql
+     * @param binds
+     * @param cacheKey the statement cache key (nil to not cache the statement)
+     * @return affected row count
+     * @throws SQLException
+     */
+    @JRubyMethod(name = {"execute_prepared_update", "execute_prepared_delete"}, required = 3)
+    public IRubyObject execute_prepared_update(final ThreadContext context, final IRubyObject sql, final IRubyObject binds,
+        final IRubyObject cacheKey) {
+        return executePreparedUpdate(context, sql, binds, cacheKey == context.nil ? null : cacheKey.toString());
+    }
+
+    private IRubyObject executePreparedUpdate(final ThreadContext context, final IRubyObject sql,
+        final IRubyObject binds, final String cacheKey) {
         return withConnection(context, new Callable<IRubyObject>() {
             public IRubyObject call(final Connection connection) throws SQLException {
                 PreparedStatement statement = null;
                 final String query = sqlString(sql);
                 try {
-                    statement = connection.prepareStatement(query);
+                    statement = cacheKey != null ?
+                            cachedStatement(connection, cacheKey, query, false) :
+                            connection.prepareStatement(query);
                     setStatementParameters(context, connection, statement, (RubyArray) binds);
-                    final int rowCount = statement.executeUpdate();
+                    final int rowCount = executeUpdate(statement);
                     return context.runtime.newFixnum(rowCount);
                 } catch (final SQLException e) {
                     debugErrorSQL(context, query);
                     throw e;
                 } finally {
+                    if ( cacheKey == null ) close(statement);
+                    else if ( statement != null ) statement.clearParameters();
+                }
+            }
+        });
+    }
+
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /**
+     * Executes a (prepared) statement for every set of binds using JDBC batching,
+     * binds are sent to the database in chunks (of up to batch size sets).
+     *
+     * When a batch rewrite limit is configured (<code>batch_rewrite_limit</code>)
+     * simple single row INSERTs get rewritten into multi-row INSERT statements,
+     * with up to limit bind parameters (unless the driver rewrites batches on
+     * its own, see {@link #isBatchRewrittenByDriver(ThreadContext)}).
+     *
+     * NOTE: generated keys for a batch are only returned by some drivers
+     * (e.g. PostgreSQL and MySQL), others return none (or just the last one).
+     *
+     * On failure a <code>BatchUpdateException</code> is raised, its update
+     * counts are those of the rows processed before (and including) the
+     * failing chunk.
+     *
+     * @param context
+     * @param args (sql, binds_list), (sql, binds_list, batch_size) or
+     *             (sql, binds_list, batch_size, return_keys)
+     * @return [ update_counts, keys ] an update count for each set of binds
+     *         (nil where the driver does not know) and an array of generated
+     *         keys (nil unless requested or not supported)
+     */
+    @JRubyMethod(required = 2, optional = 2)
+    public IRubyObject execute_batch(final ThreadContext context, final IRubyObject[] args) {
+        final String query = sqlString( args[0] );
+        final RubyArray bindsList = (RubyArray) args[1];
+        final int batchSize = args.length > 2 && args[2] != context.nil ?
+                RubyNumeric.fix2int(args[2]) : DEFAULT_BATCH_SIZE;
+        final boolean returnKeys = args.length > 3 && args[3].isTrue();
+        if ( batchSize < 1 ) throw context.runtime.newArgumentError("invalid batch size: " + batchSize);
+
+        if ( bindsList.isEmpty() ) { // nothing to do
+            return context.runtime.newArray(context.runtime.newArray(), context.nil);
+        }
+
+        final int batchRewriteLimit = getSettings().batchRewriteLimit;
+        final MultiRowInsert insert = returnKeys || batchRewriteLimit <= 0 || isBatchRewrittenByDriver(context) ?
+                null : MultiRowInsert.parse(query);
+        if ( insert != null &&
+            ((RubyArray) bindsList.eltInternal(0)).getLength() == insert.parameterCount &&
+            Math.min(batchSize, batchRewriteLimit / insert.parameterCount) > 1 ) {
+            return executeMultiRowInsert(context, insert, bindsList,
+                    Math.min(batchSize, batchRewriteLimit / insert.parameterCount));
+        }
+
+        return withConnection(context, new Callable<IRubyObject>() {
+            public IRubyObject call(final Connection connection) throws SQLException {
+                PreparedStatement statement = null;
+                try {
+                    statement = returnKeys ?
+                            connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS) :
+                            connection.prepareStatement(query);
+
+                    final int size = bindsList.getLength();
+                    final int[] counts = new int[size]; int done = 0;
+                    RubyArray keys = returnKeys ? context.runtime.newArray() : null;
+                    for ( int i = 0; i < size; i++ ) {
+                        setStatementParameters(context, connection, statement, (RubyArray) bindsList.eltInternal(i));
+                        statement.addBatch();
+                        if ( ( i + 1 ) % batchSize == 0 || i + 1 == size ) {
+                            final int[] batchCounts;
+                            try {
+                                batchCounts = executeBatch(statement);
+                            }
+                            catch (BatchUpdateException e) {
+                                final int[] failedCounts = e.getUpdateCounts() == null ? new int[0] : e.getUpdateCounts();
+                                final int[] processed = Arrays.copyOf(counts, done + failedCounts.length);
+                                System.arraycopy(failedCounts, 0, processed, done, failedCounts.length);
+                                throw batchFailure(e, processed, size);
+                            }
+                            System.arraycopy(batchCounts, 0, counts, done, batchCounts.length);
+                            done = i + 1;
+                            if ( keys != null ) keys = appendGeneratedKeys(context, connection, statement, keys);
+                        }
+                    }
+                    return context.runtime.newArray(updateCounts(context, counts), keys == null ? context.nil : keys);
+                }
+                catch (final SQLException e) {
+                    debugErrorSQL(context, query);
+                    throw e;
+                }
+                finally {
+                    close(statement);
+                }
+            }
+        });
+    }
+
+    /**
+     * @param context
+     * @return whether the driver (as configured) rewrites batched INSERTs on its
+     * own, the batch is then left as is for the driver to rewrite
+     */
+    protected boolean isBatchRewrittenByDriver(final ThreadContext context) {
+        return false;
+    }
+
+    /**
+     * @param context
+     * @param key
+     * @return a driver property (<code>properties: { key => value }</code>) or null if not configured
+     */
+    protected String getDriverProperty(final ThreadContext context, final String key) {
+        final IRubyObject properties = getConfigValue(context, "properties");
+        if ( ! ( properties instanceof RubyHash ) ) return null;
+        final IRubyObject value = ((RubyHash) properties).fastARef(context.runtime.newString(key));
+        return value == null || value.isNil() ? null : value.toString();
+    }
+
+    private IRubyObject executeMultiRowInsert(final ThreadContext context,
+        final MultiRowInsert insert, final RubyArray bindsList, final int rowsPerInsert) {
+        return withConnection(context, new Callable<IRubyObject>() {
+            public IRubyObject call(final Connection connection) throws SQLException {
+                PreparedStatement statement = null; String query = null;
+                try {
+                    final int size = bindsList.getLength();
+                    final int[] counts = new int[size];
+                    int done = 0, statementRows = 0;
+                    while ( done < size ) {
+                        final int rows = Math.min(rowsPerInsert, size - done);
+                        if ( rows != statementRows ) { // first or the last (partial) chunk
+                            close(statement); statement = null;
+                            statement = connection.prepareStatement(query = insert.toSql(rows));
+                            statementRows = rows;
+                        }
+                        for ( int r = 0; r < rows; r++ ) {
+                            final RubyArray binds = (RubyArray) bindsList.eltInternal(done + r);
+                            final int offset = r * insert.parameterCount;
+                            for ( int i = 0; i < binds.getLength(); i++ ) {
+                                setStatementParameter(context, connection, statement, offset + i + 1, binds.eltInternal(i));
+                            }
+                        }
+                        final int count;
+                        try {
+                            count = executeUpdate(statement);
+                        }
+                        catch (SQLException e) {
+                            throw batchFailure(e, Arrays.copyOf(counts, done), size);
+                        }
+                        // per row counts are not known unless all rows got inserted
+                        Arrays.fill(counts, done, done + rows, count == rows ? 1 : Statement.SUCCESS_NO_INFO);
+                        done += rows;
+                    }
+                    return context.runtime.newArray(updateCounts(context, counts), context.nil);
+                }
+                catch (final SQLException e) {
+                    if ( query != null ) debugErrorSQL(context, query);
+                    throw e;
+                }
+                finally {
                     close(statement);
                 }
             }
         });
     }
 
+    /**
+     * @param e the failure
+     * @param counts update counts of the rows processed before failing
+     * @param total number of rows (sets of binds) in the batch
+     * @return a batch exception reporting how far the batch got
+     */
+    private static BatchUpdateException batchFailure(final SQLException e, final int[] counts, final int total) {
+        int failedRow = counts.length; // drivers usually stop processing on the first failure
+        for ( int i = 0; i < counts.length; i++ ) {
+            if ( counts[i] == Statement.EXECUTE_FAILED ) { failedRow = i; break; }
+        }
+        final String message = e.getMessage() + " (batch failed at row " + (failedRow + 1) + " of " + total + ")";
+        return new BatchUpdateException(message, e.getSQLState(), e.getErrorCode(), counts, e);
+    }
+
+    private static RubyArray updateCounts(final ThreadContext context, final int[] updateCounts) {
+        final IRubyObject[] counts = new IRubyObject[updateCounts.length];
+        for ( int i = 0; i < updateCounts.length; i++ ) {
+            final int count = updateCounts[i];
+            counts[i] = count == Statement.SUCCESS_NO_INFO ? context.nil : context.runtime.newFixnum(count);
+        }
+        return RubyArray.newArrayMayCopy(context.runtime, counts);
+    }
+
+    // @return keys (with the batch's keys appended) or null if generated keys are not supported
+    private RubyArray appendGeneratedKeys(final ThreadContext context,
+        final Connection connection, final Statement statement, final RubyArray keys) throws SQLException {
+        if ( ! supportsGeneratedKeys(connection) ) return null;
+        ResultSet genKeys = null;
+        try {
+            genKeys = statement.getGeneratedKeys();
+            if ( genKeys == null ) return keys;
+            if ( genKeys.getMetaData().getColumnCount() > 0 ) {
+                while ( genKeys.next() ) keys.append( mapGeneratedKey(context.runtime, genKeys) );
+            }
+            return keys;
+        }
+        catch (SQLFeatureNotSupportedException e) {
+            return null;
+        }
+        finally { close(genKeys); }
+    }
+
     /**
      * This is the same as execute_query but it will return a list of hashes.
      *
@@ -1006,17 +1522,26 @@ public class RubyJdbcConnection extends RubyObject {
      * @param context which context this method is executing on.
      * @param args arguments being supplied to this method.
      * @param block (optional) block to yield row values (Hash(name: value))
+     * or batches of rows (Array of row values) if a <code>batch_size:</code> option is given
      * @return List of Hash(name: value) unless block is given.
      * @throws SQLException when a database error occurs<
      */
-    @JRubyMethod(required = 1, optional = 2)
+    @JRubyMethod(required = 1, optional = 3)
     public IRubyObject execute_query_raw(final ThreadContext context, final IRubyObject[] args, final Block block) {
         final String query = sqlString( args[0] ); // sql
         final RubyArray binds;
         final int maxRows;
 
+        int argc = args.length; int batchSize = 0; boolean prefetch = false;
+        if ( argc > 1 && args[argc - 1] instanceof RubyHash ) { // (..., batch_size: n, prefetch: true)
+            final RubyHash options = (RubyHash) args[--argc];
+            final IRubyObject size = options.op_aref(context, context.runtime.newSymbol("batch_size"));
+            if ( size != context.nil ) batchSize = RubyNumeric.fix2int(size);
+            prefetch = options.op_aref(context, context.runtime.newSymbol("prefetch")).isTrue();
+        }
+
         // args: (sql), (sql, max_rows), (sql, binds), (sql, max_rows, binds)
-        switch (args.length) {
+        switch (argc) {
             case 2:
                 if (args[1] instanceof RubyNumeric) { // (sql, max_rows)
                     maxRows = RubyNumeric.fix2int(args[1]);
@@ -1036,11 +1561,12 @@ public class RubyJdbcConnection extends RubyObject {
                 break;
         }
 
-        return doExecuteQueryRaw(context, query, maxRows, block, binds);
+        return doExecuteQueryRaw(context, query, maxRows, batchSize, prefetch, block, binds);
     }
 
     private IRubyObject doExecuteQueryRaw(final ThreadContext context,
-        final String query, final int maxRows, final Block block, final RubyArray binds) {
+        final String query, final int maxRows, final int batchSize, final boolean prefetch,
+        final Block block, final RubyArray binds) {
         return withConnection(context, new Callable<IRubyObject>() {
             public IRubyObject call(final Connection connection) throws SQLException {
                 Statement statement = null; boolean hasResult;
@@ -1048,21 +1574,30 @@ public class RubyJdbcConnection extends RubyObject {
                     if ( binds == null || binds.isEmpty()) { // plain statement
                         statement = createStatement(context, connection);
                         statement.setMaxRows(maxRows); // zero means there is no limit
-                        hasResult = statement.execute(query);
+                        if (batchSize > 0 && getSettings().fetchSize == 0) statement.setFetchSize(batchSize);
+                        hasResult = execute(statement, query);
                     }
                     else {
                         final PreparedStatement prepStatement;
                         statement = prepStatement = connection.prepareStatement(query);
+                        final int fetchSize = getSettings().fetchSize;
                         if (fetchSize != 0) statement.setFetchSize(fetchSize);
+                        else if (batchSize > 0) statement.setFetchSize(batchSize);
                         statement.setMaxRows(maxRows); // zero means there is no limit
                         setStatementParameters(context, connection, prepStatement, binds);
-                        hasResult = prepStatement.execute();
+                        hasResult = execute(prepStatement);
                     }
 
                     if (block.isGiven()) {
                         if (hasResult) {
                             // yield(id1, name1) ... row 1 result data
                             // yield(id2, name2) ... row 2 result data
+                            if ( batchSize > 0 ) {
+                                if ( prefetch ) {
+                                    return yieldPrefetchedBatches(context, connection, statement.getResultSet(), batchSize, block);
+                                }
+                                return yieldResultBatches(context, connection, statement.getResultSet(), batchSize, block);
+                            }
                             return yieldResultRows(context, connection, statement.getResultSet(), block);
                         }
                         return context.nil;
@@ -1083,6 +1618,117 @@ public class RubyJdbcConnection extends RubyObject {
         });
     }
 
+    private static final int DEFAULT_STREAMING_FETCH_SIZE = 1000;
+
+    /**
+     * Executes a query and yields rows (as hashes) one by one, without buffering
+     * the whole result. Rows are fetched from the database in chunks (based on
+     * the fetch size) and the statement is closed once iteration completes, also
+     * when iteration is interrupted (e.g. due a <code>break</code>).
+     *
+     * NOTE: some drivers (e.g. MySQL) do not allow other statements to be
+     * executed (on the same connection) while the result is being streamed.
+     *
+     * @param context which context this method is executing on.
+     * @param args (sql), (sql, binds) or (sql, binds, fetch_size)
+     * @param block the block to yield rows to
+     * @return nil (or an Enumerator if no block is given)
+     * @see #streamingFetchSize(int)
+     * @see #streamingRequiresTransaction()
+     */
+    @JRubyMethod(required = 1, optional = 2)
+    public IRubyObject execute_query_each(final ThreadContext context, final IRubyObject[] args, final Block block) {
+        if ( ! block.isGiven() ) {
+            return RubyEnumerator.enumeratorize(context.runtime, this, "execute_query_each", args);
+        }
+
+        final String query = sqlString( args[0] );
+        final IRubyObject binds = args.length > 1 ? args[1] : context.nil;
+        int fetchSize = getSettings().fetchSize;
+        if ( fetchSize == 0 ) fetchSize = DEFAULT_STREAMING_FETCH_SIZE;
+        if ( args.length > 2 && args[2] != context.nil ) fetchSize = RubyNumeric.fix2int(args[2]);
+
+        final int size = fetchSize;
+        return withConnection(context, new Callable<IRubyObject>() {
+            public IRubyObject call(final Connection connection) throws SQLException {
+                Statement statement = null; ResultSet resultSet = null;
+                boolean yielded = false; boolean success = false;
+                // only starts a transaction when not already within one (a caller's transaction is left alone)
+                final boolean streamingTransaction = streamingRequiresTransaction() && connection.getAutoCommit();
+                try {
+                    if ( streamingTransaction ) connection.setAutoCommit(false);
+
+                    final boolean hasResult;
+                    if ( binds == context.nil || ((RubyArray) binds).isEmpty() ) {
+                        statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        statement.setFetchSize( streamingFetchSize(size) );
+                        hasResult = execute(statement, query);
+                    }
+                    else {
+                        final PreparedStatement prepStatement;
+                        statement = prepStatement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        statement.setFetchSize( streamingFetchSize(size) );
+                        setStatementParameters(context, connection, prepStatement, (RubyArray) binds);
+                        hasResult = execute(prepStatement);
+                    }
+
+                    if ( hasResult ) {
+                        resultSet = statement.getResultSet();
+                        final ColumnData[] columns = extractColumns(context, connection, resultSet, false);
+                        final ColumnConverter[] converters = newColumnConverters(context, columns);
+                        final ResultSettings result = currentResult();
+                        while ( resultSet.next() ) {
+                            yielded = true;
+                            resumeResult(result); // the block might have mapped other results
+                            block.yield(context, mapRawRow(context, converters, columns, resultSet));
+                        }
+                    }
+                    success = true;
+                    return context.nil;
+                }
+                catch (final SQLException e) {
+                    debugErrorSQL(context, query);
+                    // rows have been yielded already - raise right away (re-trying would yield them again)
+                    if ( yielded ) return handleException(context, e);
+                    throw e;
+                }
+                finally {
+                    close(resultSet);
+                    close(statement);
+                    if ( streamingTransaction ) endStreamingTransaction(context, connection, success);
+                }
+            }
+        });
+    }
+
+    private void endStreamingTransaction(final ThreadContext context, final Connection connection, final boolean success) {
+        try {
+            if ( success ) connection.commit();
+            else connection.rollback();
+            connection.setAutoCommit(true);
+        }
+        catch (SQLException e) {
+            debugMessage(context.runtime, "failed to end streaming transaction: ", e);
+        }
+    }
+
+    /**
+     * @param fetchSize the (effective) fetch size
+     * @return the fetch size to set on statements streaming (large) results
+     */
+    protected int streamingFetchSize(final int fetchSize) {
+        return fetchSize;
+    }
+
+    /**
+     * Some drivers (e.g. PostgreSQL) only use a cursor (respect the fetch size)
+     * when auto-commit is disabled.
+     * @return whether streaming a result needs to happen inside a transaction
+     */
+    protected boolean streamingRequiresTransaction() {
+        return false;
+    }
+
     protected static String sqlString(final IRubyObject sql) {
         return sql instanceof RubyString ? ((RubyString) sql).decodeString() : sql.convertToString().decodeString();
     }
@@ -1105,7 +1751,7 @@ public class RubyJdbcConnection extends RubyObject {
                     statement = createStatement(context, connection);
 
                     // At least until AR 5.1 #exec_query still gets called for things that don't return results in some cases :(
-                    if (statement.execute(query)) {
+                    if (execute(statement, query)) {
                         return mapQueryResult(context, connection, statement.getResultSet());
                     }
 
@@ -1133,6 +1779,7 @@ public class RubyJdbcConnection extends RubyObject {
             public IRubyObject call(Connection connection) throws SQLException {
                 final String query = sql.convertToString().getUnicodeValue();
                 PreparedStatement statement = connection.prepareStatement(query);
+                final int fetchSize = getSettings().fetchSize;
                 if (fetchSize != 0) statement.setFetchSize(fetchSize);
                 return JavaUtil.convertJavaToRuby(context.runtime, statement);
             }
@@ -1145,13 +1792,14 @@ public class RubyJdbcConnection extends RubyObject {
      * <ul>
      *     <li>sql - String of sql</li>
      *     <li>binds - Array of bindings for a prepared statement</li>
-     *     <li>cached_statement - A prepared statement object that should be used instead of creating a new statement</li>
+     *     <li>cache_key - (String) key to cache the prepared statement under (nil to not cache the statement)</li>
      * </ul>
      *
      * @param context which context this method is executing on.
      * @param sql the query to execute.
      * @param binds an array of values to be set as parameters
-     * @param cachedStatement a wrapped <code>PreparedStatement</code> to use instead of creating a new <code>Statement</code>
+     * @param cachedStatement the statement cache key, for backwards compatibility
+     *        a wrapped <code>PreparedStatement</code> to use is accepted as well
      * @return a Ruby <code>ActiveRecord::Result</code> instance
      * @throws SQLException when a database error occurs
      */
@@ -1165,16 +1813,19 @@ public class RubyJdbcConnection extends RubyObject {
                 PreparedStatement statement = null;
 
                 try {
-                    if (cached) {
+                    if (cachedStatement instanceof RubyString) {
+                        statement = cachedStatement(connection, cachedStatement.toString(), query, false);
+                    } else if (cached) {
                         statement = (PreparedStatement) JavaEmbedUtils.rubyToJava(cachedStatement);
                     } else {
                         statement = connection.prepareStatement(query);
+                        final int fetchSize = getSettings().fetchSize;
                         if (fetchSize != 0) statement.setFetchSize(fetchSize);
                     }
 
                     setStatementParameters(context, connection, statement, (RubyArray) binds);
 
-                    if (statement.execute()) {
+                    if (execute(statement)) {
                         ResultSet resultSet = statement.getResultSet();
                         IRubyObject results = mapQueryResult(context, connection, resultSet);
                         resultSet.close();
@@ -1188,7 +1839,7 @@ public class RubyJdbcConnection extends RubyObject {
                     throw e;
                 } finally {
                     if ( cached ) {
-                        statement.clearParameters();
+                        if ( statement != null ) statement.clearParameters();
                     } else {
                         close(statement);
                     }
@@ -1197,6 +1848,221 @@ public class RubyJdbcConnection extends RubyObject {
         });
     }
 
+    /**
+     * @param connection
+     * @param key the cache key
+     * @param query the SQL to prepare (on a cache miss)
+     * @param generatedKeys whether the statement should return generated keys,
+     *        such statements are cached separately (from plain ones)
+     * @return a (cached) prepared statement
+     * @throws SQLException
+     */
+    private PreparedStatement cachedStatement(final Connection connection,
+        final String key, final String query, final boolean generatedKeys) throws SQLException {
+        StatementCache statementCache = this.statementCache;
+        if ( statementCache == null ) {
+            this.statementCache = statementCache = new StatementCache(Math.max(getSettings().statementLimit, 1));
+        }
+        final String cacheKey = generatedKeys ? GENERATED_KEYS_PREFIX + key : key;
+        PreparedStatement statement = statementCache.get(cacheKey);
+        if ( statement == null ) {
+            final long start = System.nanoTime();
+            if ( generatedKeys ) {
+                statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
+            }
+            else {
+                statement = connection.prepareStatement(query);
+                final int fetchSize = getSettings().fetchSize;
+                if (fetchSize != 0) statement.setFetchSize(fetchSize);
+            }
+            statementCache.put(cacheKey, statement, System.nanoTime() - start);
+        }
+        return statement;
+    }
+
+    private static final String GENERATED_KEYS_PREFIX = "\0keys:";
+
+    /**
+     * Clears (and closes) all cached prepared statements.
+     * @param context
+     * @return nil
+     */
+    @JRubyMethod(name = "clear_statement_cache")
+    public IRubyObject clear_statement_cache(final ThreadContext context) {
+        if ( statementCache != null ) statementCache.clear();
+        return context.nil;
+    }
+
+    /**
+     * @param context
+     * @param key the statement's cache key
+     * @return true if a cached statement got removed (and closed)
+     */
+    @JRubyMethod(name = "delete_cached_statement", required = 1)
+    public IRubyObject delete_cached_statement(final ThreadContext context, final IRubyObject key) {
+        if ( statementCache == null ) return context.runtime.getFalse();
+        final boolean removed = statementCache.remove(key.toString());
+        final boolean removedKeys = statementCache.remove(GENERATED_KEYS_PREFIX + key);
+        return context.runtime.newBoolean(removed || removedKeys);
+    }
+
+    /**
+     * @param context
+     * @return statement cache statistics e.g. <code>{ 'size' => 1, 'hits' => 10, 'misses' => 1, ... }</code>
+     */
+    @JRubyMethod(name = "statement_cache_stats")
+    public IRubyObject statement_cache_stats(final ThreadContext context) {
+        StatementCache statementCache = this.statementCache;
+        if ( statementCache == null ) statementCache = new StatementCache(Math.max(getSettings().statementLimit, 1)); // empty
+        return statementCache.stats(context);
+    }
+
+    /**
+     * @param context
+     * @return the statement timeout (in seconds) in effect or nil if none
+     */
+    @JRubyMethod(name = "statement_timeout")
+    public IRubyObject statement_timeout(final ThreadContext context) {
+        final long timeout = getStatementTimeout();
+        return timeout > 0 ? context.runtime.newFloat(timeout / 1000.0) : context.nil;
+    }
+
+    /**
+     * Overrides the (configured) statement timeout for statements executed
+     * within the given block.
+     * @param context
+     * @param timeout (in seconds) nil or 0 for no timeout
+     * @param block
+     * @return the block's result
+     */
+    @JRubyMethod(name = "with_statement_timeout", required = 1)
+    public IRubyObject with_statement_timeout(final ThreadContext context, final IRubyObject timeout, final Block block) {
+        final long previous = this.statementTimeoutOverride;
+        this.statementTimeoutOverride = ConnectionSettings.toTimeoutMillis(context, timeout);
+        try {
+            return block.yield(context, timeout);
+        }
+        finally {
+            this.statementTimeoutOverride = previous;
+        }
+    }
+
+    protected final long getStatementTimeout() {
+        final long timeout = this.statementTimeoutOverride;
+        return timeout >= 0 ? timeout : getSettings().statementTimeout;
+    }
+
+    /**
+     * Executes the statement as a blocking (Ruby) thread task : the statement timeout
+     * gets applied and the statement cancelled if the (Ruby) thread is interrupted
+     * meanwhile (<code>Thread#raise</code> or <code>Thread#kill</code>), the pending
+     * interrupt is raised once the execution returns.
+     * Only the (database) execution is interruptible, not mapping its results.
+     */
+    private abstract class Execution<S extends Statement, T> implements RubyThread.Task<S, T> {
+
+        abstract T execute(final S statement) throws SQLException;
+
+        public T run(final ThreadContext context, final S statement) {
+            try {
+                return execute(statement);
+            }
+            catch (SQLException e) {
+                throw new SQLExceptionWrapper(e);
+            }
+        }
+
+        public void wakeup(final RubyThread thread, final S statement) {
+            try { statement.cancel(); }
+            catch (SQLException e) { /* completed meanwhile */ }
+        }
+
+        final T call(final S statement) throws SQLException {
+            final ScheduledFuture<?> watchdog = applyStatementTimeout(statement);
+            final ThreadContext context = getRuntime().getCurrentContext();
+            try {
+                return context.getThread().executeTask(context, statement, this);
+            }
+            catch (SQLExceptionWrapper e) {
+                throw e.getCause();
+            }
+            catch (InterruptedException e) {
+                context.pollThreadEvents();
+                throw context.runtime.newThreadError("interrupted");
+            }
+            finally {
+                if ( watchdog != null ) watchdog.cancel(false);
+            }
+        }
+
+    }
+
+    /**
+     * @return the scheduled (watchdog) cancel, if any, to be cancelled once the statement completes
+     */
+    private ScheduledFuture<?> applyStatementTimeout(final Statement statement) throws SQLException {
+        final long timeout = getStatementTimeout();
+        if ( timeout > 0 && ( getSettings().statementTimeoutWatchdog || timeout % 1000 != 0 ) ) {
+            // (cached) statements keep their query timeout
+            if ( queryTimeoutSet && statement.getQueryTimeout() != 0 ) statement.setQueryTimeout(0);
+            return StatementWatchdog.schedule(statement, timeout);
+        }
+        if ( timeout > 0 || queryTimeoutSet ) {
+            final int seconds = (int) (timeout / 1000); // 0 - no timeout
+            if ( statement.getQueryTimeout() != seconds ) statement.setQueryTimeout(seconds);
+            queryTimeoutSet = true;
+        }
+        return null;
+    }
+
+    protected final boolean execute(final Statement statement, final String query) throws SQLException {
+        return new Execution<Statement, Boolean>() {
+            Boolean execute(final Statement statement) throws SQLException { return statement.execute(query); }
+        }.call(statement);
+    }
+
+    protected final boolean execute(final Statement statement, final String query, final int autoGeneratedKeys)
+        throws SQLException {
+        return new Execution<Statement, Boolean>() {
+            Boolean execute(final Statement statement) throws SQLException {
+                return statement.execute(query, autoGeneratedKeys);
+            }
+        }.call(statement);
+    }
+
+    protected final boolean execute(final PreparedStatement statement) throws SQLException {
+        return new Execution<PreparedStatement, Boolean>() {
+            Boolean execute(final PreparedStatement statement) throws SQLException { return statement.execute(); }
+        }.call(statement);
+    }
+
+    protected final int executeUpdate(final Statement statement, final String query) throws SQLException {
+        return new Execution<Statement, Integer>() {
+            Integer execute(final Statement statement) throws SQLException { return statement.executeUpdate(query); }
+        }.call(statement);
+    }
+
+    protected final int executeUpdate(final Statement statement, final String query, final int autoGeneratedKeys)
+        throws SQLException {
+        return new Execution<Statement, Integer>() {
+            Integer execute(final Statement statement) throws SQLException {
+                return statement.executeUpdate(query, autoGeneratedKeys);
+            }
+        }.call(statement);
+    }
+
+    protected final int executeUpdate(final PreparedStatement statement) throws SQLException {
+        return new Execution<PreparedStatement, Integer>() {
+            Integer execute(final PreparedStatement statement) throws SQLException { return statement.executeUpdate(); }
+        }.call(statement);
+    }
+
+    protected final int[] executeBatch(final Statement statement) throws SQLException {
+        return new Execution<Statement, int[]>() {
+            int[] execute(final Statement statement) throws SQLException { return statement.executeBatch(); }
+        }.call(statement);
+    }
+
     protected IRubyObject mapQueryResult(final ThreadContext context,
         final Connection connection, final ResultSet resultSet) throws SQLException {
         final ColumnData[] columns = extractColumns(context, connection, resultSet, false);
@@ -1220,7 +2086,7 @@ public class RubyJdbcConnection extends RubyObject {
                 try {
                     statement = connection.prepareStatement(insertSQL);
                     statement.setLong(1, RubyNumeric.fix2long(id));
-                    statement.executeUpdate();
+                    executeUpdate(statement);
                 }
                 catch (final SQLException e) {
                     debugErrorSQL(context, insertSQL);
@@ -1235,14 +2101,15 @@ public class RubyJdbcConnection extends RubyObject {
     @JRubyMethod(name = "supported_data_types")
     public IRubyObject supported_data_types(final ThreadContext context) throws SQLException {
         final Connection connection = getConnection(true);
-        final ResultSet typeDesc = connection.getMetaData().getTypeInfo();
-        final IRubyObject types;
+        final KeepAliveValidator keepAlive = lockConnection(context);
         try {
-            types = mapToRawResult(context, connection, typeDesc, true);
+            final ResultSet typeDesc = connection.getMetaData().getTypeInfo();
+            try {
+                return mapToRawResult(context, connection, typeDesc, true);
+            }
+            finally { close(typeDesc); }
         }
-        finally { close(typeDesc); }
-
-        return types;
+        finally { unlockConnection(keepAlive); }
     }
 
     @JRubyMethod(name = "primary_keys", required = 1)
@@ -1673,7 +2540,7 @@ public class RubyJdbcConnection extends RubyObject {
                     }
                     setStatementParameter(context, context.runtime, connection, statement, 2, idValue, idColumn);
                     */
-                    return statement.executeUpdate();
+                    return executeUpdate(statement);
                 }
                 finally { close(statement); }
             }
@@ -1839,11 +2706,11 @@ public class RubyJdbcConnection extends RubyObject {
         if ( driver_instance != null && ! driver_instance.isNil() ) {
             final Object driverInstance = driver_instance.toJava(Object.class);
             if ( driverInstance instanceof DriverWrapper ) {
-                setConnectionFactory(factory = new DriverConnectionFactory(
+                setConnectionFactory(factory = pooledFactory(context, new DriverConnectionFactory(
                         (DriverWrapper) driverInstance, jdbcURL,
                         ( username.isNil() ? null : username.toString() ),
                         ( password.isNil() ? null : password.toString() )
-                ));
+                )));
                 return factory;
             }
             else {
@@ -1860,10 +2727,20 @@ public class RubyJdbcConnection extends RubyObject {
         final String pass = password.isNil() ? null : password.toString();
 
         final DriverWrapper driverWrapper = newDriverWrapper(context, driver.toString());
-        setConnectionFactory(factory = new DriverConnectionFactory(driverWrapper, jdbcURL, user, pass));
+        setConnectionFactory(factory = pooledFactory(context, new DriverConnectionFactory(driverWrapper, jdbcURL, user, pass)));
         return factory;
     }
 
+    /**
+     * @return a (shared) pool of connections when configured with <code>jdbc_pool: true</code>
+     * @see PooledConnectionFactory.Settings
+     */
+    private ConnectionFactory pooledFactory(final ThreadContext context, final DriverConnectionFactory factory) {
+        final IRubyObject pool = getConfigValue(context, "jdbc_pool");
+        if ( pool == context.nil || pool == context.runtime.getFalse() ) return factory;
+        return PooledConnectionFactory.getPool(context.runtime, factory, new PooledConnectionFactory.Settings(context, this));
+    }
+
     protected DriverWrapper newDriverWrapper(final ThreadContext context, final String driver) throws RaiseException {
         try {
             return new DriverWrapper(context.runtime, driver, resolveDriverProperties(context));
@@ -2007,6 +2884,17 @@ public class RubyJdbcConnection extends RubyObject {
 
     public IRubyObject getConfig() { return this.config; }
 
+    /**
+     * @return the (typed) settings as parsed from the configuration
+     */
+    public final ConnectionSettings getSettings() {
+        ConnectionSettings settings = this.settings;
+        if ( settings == null ) { // config changed (or not yet initialized)
+            this.settings = settings = new ConnectionSettings(getRuntime().getCurrentContext(), this);
+        }
+        return settings;
+    }
+
     protected final IRubyObject getConfigValue(final ThreadContext context, final String key) {
         final IRubyObject config = getConfig();
         final RubySymbol keySym = context.runtime.newSymbol(key);
@@ -2021,10 +2909,16 @@ public class RubyJdbcConnection extends RubyObject {
                                                final String key, final IRubyObject value) {
         final IRubyObject config = getConfig();
         final RubySymbol keySym = context.runtime.newSymbol(key);
+        this.settings = null; // re-parse
+        final IRubyObject result;
         if ( config instanceof RubyHash ) {
-            return ((RubyHash) config).op_aset(context, keySym, value);
+            result = ((RubyHash) config).op_aset(context, keySym, value);
+        }
+        else {
+            result = config.callMethod(context, "[]=", new IRubyObject[] { keySym, value });
         }
-        return config.callMethod(context, "[]=", new IRubyObject[] { keySym, value });
+        if ( "connection_keep_alive".equals(key) ) updateKeepAlive();
+        return result;
     }
 
     protected final IRubyObject setConfigValueIfNotSet(final ThreadContext context,
@@ -2034,12 +2928,25 @@ public class RubyJdbcConnection extends RubyObject {
         if ( config instanceof RubyHash ) {
             final IRubyObject setValue = ((RubyHash) config).fastARef(keySym);
             if ( setValue != null ) return setValue;
-            return ((RubyHash) config).op_aset(context, keySym, value);
         }
+        else {
+            final IRubyObject setValue = config.callMethod(context, "[]", keySym);
+            if ( setValue != context.nil ) return setValue;
+        }
+        return setConfigValue(context, key, value);
+    }
 
-        final IRubyObject setValue = config.callMethod(context, "[]", keySym);
-        if ( setValue != context.nil ) return setValue;
-        return config.callMethod(context, "[]=", new IRubyObject[] { keySym, value });
+    /**
+     * (Re-)starts or stops background validation in case the keep-alive interval changed.
+     */
+    private void updateKeepAlive() {
+        final long interval = jndi ? 0 : getSettings().keepAlive; // JNDI pools validate on their own
+        final KeepAliveValidator keepAlive = this.keepAlive;
+        if ( keepAlive != null ) {
+            if ( keepAlive.getInterval() == interval ) return;
+            keepAlive.stop();
+        }
+        this.keepAlive = interval > 0 ? KeepAliveValidator.start(this, interval) : null;
     }
 
     private static String toStringOrNull(final IRubyObject arg) {
@@ -2095,86 +3002,422 @@ public class RubyJdbcConnection extends RubyObject {
      */
     protected IRubyObject mapToResult(final ThreadContext context, final Connection connection,
                                       final ResultSet resultSet, final ColumnData[] columns) throws SQLException {
-        final Ruby runtime = context.runtime;
+        if ( getSettings().columnarResults ) return mapToColumnarResult(context, resultSet, columns);
 
-        final RubyArray resultRows = runtime.newArray();
+        final RubyArray resultRows = context.runtime.newArray();
+        final ColumnConverter[] converters = newColumnConverters(context, columns);
 
         while (resultSet.next()) {
-            resultRows.append(mapRow(context, runtime, columns, resultSet, this));
+            resultRows.append(mapRow(context, converters, columns, resultSet));
+        }
+
+        return setStringDictionaryStats(context, newResult(context, columns, resultRows), columns, converters);
+    }
+
+    /**
+     * Maps a query result into a (lazy) <code>ColumnarResult</code>, values
+     * are buffered column-wise and only converted to Ruby objects on access.
+     * @param context
+     * @param resultSet
+     * @param columns
+     * @return a <code>JdbcConnection::ColumnarResult</code> (<code>ActiveRecord::Result</code>)
+     * @throws SQLException
+     * @see #newColumnBuffer(ThreadContext, ColumnData)
+     */
+    protected IRubyObject mapToColumnarResult(final ThreadContext context,
+        final ResultSet resultSet, final ColumnData[] columns) throws SQLException {
+        final ColumnarRows.Column[] buffers = new ColumnarRows.Column[columns.length];
+        startResult();
+        for ( int i = 0; i < columns.length; i++ ) {
+            buffers[i] = newColumnBuffer(context, columns[i]);
+        }
+        final ColumnarRows rows = ColumnarRows.newRows(context, buffers, resultSet);
+
+        final RubyClass ColumnarResult = (RubyClass) getJdbcConnection(context.runtime).getConstant("ColumnarResult");
+        return ColumnarResult.newInstance(context, columnsToArray(context, columns), rows, Block.NULL_BLOCK);
+    }
+
+    /**
+     * Resolves a (columnar) buffer for the given result column.
+     * Only types where the default <code>jdbcToRuby</code> conversion is known
+     * to be lossless are buffered as primitives, sub-classes that customize
+     * conversion (for a given type) should return an object column instead.
+     * @param context
+     * @param column
+     * @return column buffer
+     */
+    protected ColumnarRows.Column newColumnBuffer(final ThreadContext context, final ColumnData column) {
+        switch (column.type) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return new ColumnarRows.LongColumn(column.index);
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return new ColumnarRows.DoubleColumn(column.index);
+            case Types.BIT:
+            case Types.BOOLEAN:
+                if ( getConversionSettings().rawBoolean ) break;
+                return new ColumnarRows.BooleanColumn(column.index);
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+                final Encoding encoding = defaultInternalEncoding(context.runtime);
+                final boolean readBytes = isStringBytesSupported(context);
+                if ( ! readBytes && encoding != UTF8Encoding.INSTANCE ) break; // getString() -> UTF-8 bytes
+                return new ColumnarRows.StringColumn(column.index, encoding, readBytes);
         }
+        return new ColumnarRows.ObjectColumn(newColumnConverter(context, column), column.index);
+    }
 
-        return newResult(context, columns, resultRows);
+    protected static Encoding defaultInternalEncoding(final Ruby runtime) {
+        Encoding enc = runtime.getDefaultInternalEncoding();
+        if ( enc == null ) enc = runtime.getEncodingService().getJavaDefault();
+        return enc;
     }
 
     protected IRubyObject jdbcToRuby(
         final ThreadContext context, final Ruby runtime,
         final int column, final int type, final ResultSet resultSet)
         throws SQLException {
+        return columnConverter(type).convert(context, resultSet, column);
+    }
 
-        try {
-            switch (type) {
+    /**
+     * Resolves a converter for the given result column, this is done once per
+     * (query) result column and the converter is used for every row.
+     *
+     * NOTE: adapters customizing {@link #jdbcToRuby(ThreadContext, Ruby, int, int, ResultSet)}
+     * for a given type should override this method as well.
+     *
+     * @param context current thread context
+     * @param column the result column
+     * @return a converter for the column values
+     */
+    protected ColumnConverter newColumnConverter(final ThreadContext context, final ColumnData column) {
+        ColumnConverter converter = columnConverter(column.type);
+        if ( converter == stringConverter && isCharacterType(column.type) && isStringBytesSupported(context) ) {
+            converter = STRING_BYTES_CONVERTER;
+        }
+        if ( getSettings().internStrings && ( converter == stringConverter || converter == STRING_BYTES_CONVERTER ) ) {
+            return new StringDictionaryConverter(converter);
+        }
+        return converter;
+    }
+
+    /**
+     * Drivers that return the (wire) encoded bytes from <code>ResultSet#getBytes</code>
+     * for character columns should return the encoding here. When it matches Ruby's
+     * (default internal) encoding such columns are read as bytes, skipping the
+     * <code>java.lang.String</code> decode (and the Ruby re-encode) per value.
+     * @param context current thread context
+     * @return the encoding of string bytes or null (default) to use <code>getString</code>
+     */
+    protected Encoding stringBytesEncoding(final ThreadContext context) {
+        return null;
+    }
+
+    protected final boolean isStringBytesSupported(final ThreadContext context) {
+        final Encoding encoding = stringBytesEncoding(context);
+        return encoding != null && encoding == defaultInternalEncoding(context.runtime);
+    }
+
+    private static boolean isCharacterType(final int type) {
+        switch (type) {
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sets (string) interning statistics as <code>@string_dictionary_stats</code> on the result.
+     * @param context
+     * @param result the (AR) result
+     * @param columns result columns
+     * @param converters the converters used to map the result
+     * @return the passed result
+     */
+    protected static IRubyObject setStringDictionaryStats(final ThreadContext context,
+        final IRubyObject result, final ColumnData[] columns, final ColumnConverter[] converters) {
+        RubyHash stats = null;
+        for ( int i = 0; i < converters.length; i++ ) {
+            if ( converters[i] instanceof StringDictionaryConverter ) {
+                if ( stats == null ) stats = RubyHash.newHash(context.runtime);
+                stats.fastASet(columns[i].getName(context), ((StringDictionaryConverter) converters[i]).stats(context));
+            }
+        }
+        if ( stats != null ) result.getInstanceVariables().setInstanceVariable("@string_dictionary_stats", stats);
+        return result;
+    }
+
+    /**
+     * Called when mapping of a new result starts, resolves the (result's) conversion settings.
+     * @return the settings, to be resumed in case other results get mapped meanwhile
+     * @see #resumeResult(ResultSettings)
+     */
+    private ResultSettings startResult() {
+        // the default time zone gets re-checked (once per result) when needed
+        return mapping().result = new ResultSettings(this, resolveConversionSettings());
+    }
+
+    /**
+     * Makes the given result's settings current again, needs to happen before converting
+     * (more) rows once control was handed to a block (which might have run other queries).
+     * @param settings as returned by {@link #startResult()}
+     */
+    private void resumeResult(final ResultSettings settings) {
+        mapping().result = settings;
+    }
+
+    private ResultSettings currentResult() {
+        final ResultSettings settings = mapping().result;
+        return settings != null ? settings : startResult();
+    }
+
+    /**
+     * @return the mapping state for the current thread, a prefetching thread uses its own
+     */
+    private MappingState mapping() {
+        final MappingState prefetch = prefetchMapping;
+        if ( prefetch != null && prefetch.thread == Thread.currentThread() ) return prefetch;
+        return mapping;
+    }
+
+    /**
+     * State used while converting result values, not thread-safe.
+     */
+    private static final class MappingState {
+
+        final Thread thread; // only set for a prefetching thread
+
+        ResultSettings result; // of the result currently being mapped
+        ZoneOffsets zone; // last resolved (re-used while the default zone does not change)
+        DateCache dateCache;
+
+        MappingState(final Thread thread) { this.thread = thread; }
+
+    }
+
+    private ConversionSettings resolveConversionSettings() {
+        final Boolean rawDateTime = RubyJdbcConnection.rawDateTime, rawBoolean = RubyJdbcConnection.rawBoolean;
+        final boolean defaultRawDateTime = rawDateTime != null && rawDateTime.booleanValue();
+        final ConnectionSettings settings = getSettings();
+        return ConversionSettings.valueOf(
+            settings.rawDate != null ? settings.rawDate.booleanValue() : defaultRawDateTime,
+            settings.rawTime != null ? settings.rawTime.booleanValue() : defaultRawDateTime,
+            settings.rawTimestamp != null ? settings.rawTimestamp.booleanValue() : defaultRawDateTime,
+            settings.rawBoolean != null ? settings.rawBoolean.booleanValue() : ( rawBoolean != null && rawBoolean.booleanValue() )
+        );
+    }
+
+    /**
+     * @return conversion settings (as resolved when mapping of the current result started)
+     */
+    protected final ConversionSettings getConversionSettings() {
+        return currentResult().conversion;
+    }
+
+    protected final ColumnConverter[] newColumnConverters(final ThreadContext context, final ColumnData[] columns) {
+        final ColumnConverter[] converters = new ColumnConverter[columns.length];
+        startResult();
+        for ( int i = 0; i < columns.length; i++ ) {
+            converters[i] = newColumnConverter(context, columns[i]);
+        }
+        return converters;
+    }
+
+    /**
+     * @param column the result column
+     * @return a converter that (always) delegates to jdbcToRuby
+     */
+    protected final ColumnConverter jdbcToRubyConverter(final ColumnData column) {
+        final int type = column.type;
+        return new ColumnConverter() {
+            public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException {
+                return jdbcToRuby(context, context.runtime, column, type, resultSet);
+            }
+        };
+    }
+
+    private ColumnConverter columnConverter(final int type) {
+        switch (type) {
             case Types.BLOB:
             case Types.BINARY:
             case Types.VARBINARY:
             case Types.LONGVARBINARY:
-                return streamToRuby(context, runtime, resultSet, column);
+                return streamConverter;
             case Types.CLOB:
             case Types.NCLOB: // JDBC 4.0
-                return readerToRuby(context, runtime, resultSet, column);
+                return readerConverter;
             case Types.LONGVARCHAR:
             case Types.LONGNVARCHAR: // JDBC 4.0
-                return readerToRuby(context, runtime, resultSet, column);
+                return readerConverter;
             case Types.TINYINT:
             case Types.SMALLINT:
             case Types.INTEGER:
-                return integerToRuby(context, runtime, resultSet, column);
+                return integerConverter;
             case Types.REAL:
             case Types.FLOAT:
             case Types.DOUBLE:
-                return doubleToRuby(context, runtime, resultSet, column);
+                return doubleConverter;
             case Types.BIGINT:
-                return bigIntegerToRuby(context, runtime, resultSet, column);
+                return bigIntegerConverter;
             case Types.NUMERIC:
             case Types.DECIMAL:
-                return decimalToRuby(context, runtime, resultSet, column);
+                return decimalConverter;
             case Types.DATE:
-                return dateToRuby(context, runtime, resultSet, column);
+                return dateConverter;
             case Types.TIME:
-                return timeToRuby(context, runtime, resultSet, column);
+                return timeConverter;
             case Types.TIMESTAMP:
-                return timestampToRuby(context, runtime, resultSet, column);
+                return timestampConverter;
             case Types.BIT:
-                return bitToRuby(context, runtime, resultSet, column);
+                return bitConverter;
             case Types.BOOLEAN:
-                return booleanToRuby(context, runtime, resultSet, column);
+                return booleanConverter;
             case Types.SQLXML: // JDBC 4.0
-                return xmlToRuby(context, runtime, resultSet, column);
+                return xmlConverter;
             case Types.ARRAY: // we handle JDBC Array into (Ruby) []
-                return arrayToRuby(context, runtime, resultSet, column);
+                return arrayConverter;
             case Types.NULL:
-                return context.nil;
+                return NIL_CONVERTER;
             // NOTE: (JDBC) exotic stuff just cause it's so easy with JRuby :)
             case Types.JAVA_OBJECT:
             case Types.OTHER:
-                return objectToRuby(context, runtime, resultSet, column);
+                return objectConverter;
             // (default) String
             case Types.CHAR:
             case Types.VARCHAR:
             case Types.NCHAR: // JDBC 4.0
             case Types.NVARCHAR: // JDBC 4.0
             default:
-                return stringToRuby(context, runtime, resultSet, column);
+                return stringConverter;
+        }
+        // NOTE: not mapped types :
+        //case Types.DISTINCT:
+        //case Types.STRUCT:
+        //case Types.REF:
+        //case Types.DATALINK:
+    }
+
+    private static final ColumnConverter NIL_CONVERTER = new ColumnConverter() {
+        public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) {
+            return context.nil;
+        }
+    };
+
+    private final ColumnConverter streamConverter = new ColumnConverter() {
+        public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException {
+            try {
+                return streamToRuby(context, context.runtime, resultSet, column);
+            }
+            catch (IOException e) {
+                throw new SQLException(e.getMessage(), e);
+            }
+        }
+    };
+
+    private final ColumnConverter readerConverter = new ColumnConverter() {
+        public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException {
+            try {
+                return readerToRuby(context, context.runtime, resultSet, column);
+            }
+            catch (IOException e) {
+                throw new SQLException(e.getMessage(), e);
             }
-            // NOTE: not mapped types :
-            //case Types.DISTINCT:
-            //case Types.STRUCT:
-            //case Types.REF:
-            //case Types.DATALINK:
         }
-        catch (IOException e) {
-            throw new SQLException(e.getMessage(), e);
+    };
+
+    private final ColumnConverter integerConverter = new ColumnConverter() {
+        public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException {
+            return integerToRuby(context, context.runtime, resultSet, column);
+        }
+    };
+
+    private final ColumnConverter doubleConverter = new ColumnConverter() {
+        public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException {
+            return doubleToRuby(context, context.runtime, resultSet, column);
+        }
+    };
+
+    private final ColumnConverter bigIntegerConverter = new ColumnConverter() {
+        public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException {
+            return bigIntegerToRuby(context, context.runtime, resultSet, column);
+        }
+    };
+
+    private final ColumnConverter decimalConverter = new ColumnConverter() {
+        public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException {
+            return decimalToRuby(context, context.runtime, resultSet, column);
+        }
+    };
+
+    private final ColumnConverter dateConverter = new ColumnConverter() {
+        public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException {
+            return dateToRuby(context, context.runtime, resultSet, column);
+        }
+    };
+
+    private final ColumnConverter timeConverter = new ColumnConverter() {
+        public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException {
+            return timeToRuby(context, context.runtime, resultSet, column);
+        }
+    };
+
+    private final ColumnConverter timestampConverter = new ColumnConverter() {
+        public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException {
+            return timestampToRuby(context, context.runtime, resultSet, column);
+        }
+    };
+
+    private final ColumnConverter bitConverter = new ColumnConverter() {
+        public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException {
+            return bitToRuby(context, context.runtime, resultSet, column);
+        }
+    };
+
+    private final ColumnConverter booleanConverter = new ColumnConverter() {
+        public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException {
+            return booleanToRuby(context, context.runtime, resultSet, column);
+        }
+    };
+
+    private final ColumnConverter xmlConverter = new ColumnConverter() {
+        public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException {
+            return xmlToRuby(context, context.runtime, resultSet, column);
         }
-    }
+    };
+
+    private final ColumnConverter arrayConverter = new ColumnConverter() {
+        public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException {
+            return arrayToRuby(context, context.runtime, resultSet, column);
+        }
+    };
+
+    private final ColumnConverter objectConverter = new ColumnConverter() {
+        public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException {
+            return objectToRuby(context, context.runtime, resultSet, column);
+        }
+    };
+
+    private final ColumnConverter stringConverter = new ColumnConverter() {
+        public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException {
+            return stringToRuby(context, context.runtime, resultSet, column);
+        }
+    };
+
+    private static final ColumnConverter STRING_BYTES_CONVERTER = new ColumnConverter() {
+        public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException {
+            return bytesToRubyString(context, context.runtime, resultSet, column);
+        }
+    };
 
     /**
      * Converts an integer column into a Ruby integer.
@@ -2248,6 +3491,11 @@ public class RubyJdbcConnection extends RubyObject {
         return new org.jruby.ext.bigdecimal.RubyBigDecimal(runtime, value);
     }
 
+    /**
+     * Global (JVM wide) default, unless configured per connection (<code>raw_date_time: true</code>).
+     * @see #getConversionSettings()
+     */
+    @Deprecated
     protected static Boolean rawDateTime;
     static {
         final String dateTimeRaw = SafePropertyAccessor.getProperty("arjdbc.datetime.raw");
@@ -2296,11 +3544,13 @@ public class RubyJdbcConnection extends RubyObject {
             return resultSet.wasNull() ? context.nil : RubyString.newEmptyString(runtime);
         }
 
-        if ( rawDateTime != null && rawDateTime.booleanValue() ) {
+        if ( getConversionSettings().rawDate ) {
             return RubyString.newString(runtime, DateTimeUtils.dateToString(value));
         }
 
-        return DateTimeUtils.newDateAsTime(context, value, null).callMethod(context, "to_date");
+        final MappingState mapping = mapping();
+        if ( mapping.dateCache == null ) mapping.dateCache = new DateCache();
+        return DateTimeUtils.newDate(context, value, currentResult().getJavaZone(context), mapping.dateCache);
     }
 
     protected IRubyObject timeToRuby(final ThreadContext context,
@@ -2312,11 +3562,11 @@ public class RubyJdbcConnection extends RubyObject {
             return resultSet.wasNull() ? context.nil : RubyString.newEmptyString(runtime);
         }
 
-        if ( rawDateTime != null && rawDateTime.booleanValue() ) {
+        if ( getConversionSettings().rawTime ) {
             return RubyString.newString(runtime, DateTimeUtils.timeToString(value));
         }
 
-        return DateTimeUtils.newDummyTime(context, value, getDefaultTimeZone(context));
+        return DateTimeUtils.newDummyTime(context, value, getResultTimeZone(context));
     }
 
     protected IRubyObject timestampToRuby(final ThreadContext context,
@@ -2328,7 +3578,7 @@ public class RubyJdbcConnection extends RubyObject {
             return resultSet.wasNull() ? context.nil : RubyString.newEmptyString(runtime);
         }
 
-        if ( rawDateTime != null && rawDateTime.booleanValue() ) {
+        if ( getConversionSettings().rawTimestamp ) {
             return RubyString.newString(runtime, DateTimeUtils.timestampToString(value));
         }
 
@@ -2337,7 +3587,8 @@ public class RubyJdbcConnection extends RubyObject {
         // yet for custom SELECTs to work (SELECT created_at ... ) and for compatibility we
         // should be returning Time (by default) - AR does this by adjusting mysql2/pg returns
 
-        return DateTimeUtils.newTime(context, value, getDefaultTimeZone(context));
+        final ResultSettings result = currentResult();
+        return DateTimeUtils.newTime(context, value, result.getJavaZone(context), result.getZoneOffsets(context));
     }
 
     @Deprecated
@@ -2353,6 +3604,11 @@ public class RubyJdbcConnection extends RubyObject {
         return RubyString.newUnicodeString(runtime, value);
     }
 
+    /**
+     * Global (JVM wide) default, unless configured per connection (<code>raw_boolean: true</code>).
+     * @see #getConversionSettings()
+     */
+    @Deprecated
     protected static Boolean rawBoolean;
     static {
         final String booleanRaw = SafePropertyAccessor.getProperty("arjdbc.boolean.raw");
@@ -2396,7 +3652,7 @@ public class RubyJdbcConnection extends RubyObject {
     protected IRubyObject booleanToRuby(final ThreadContext context,
         final Ruby runtime, final ResultSet resultSet, final int column)
         throws SQLException {
-        if ( rawBoolean != null && rawBoolean.booleanValue() ) {
+        if ( getConversionSettings().rawBoolean ) {
             final String value = resultSet.getString(column);
             if ( value == null /* && resultSet.wasNull() */ ) return context.nil;
             return RubyString.newUnicodeString(runtime, value);
@@ -2551,7 +3807,15 @@ public class RubyJdbcConnection extends RubyObject {
             final int index, IRubyObject attribute) throws SQLException {
 
         //debugMessage(context, attribute);
-        final int type = jdbcTypeForAttribute(context, attribute);
+        final int type; final ParameterSetter setter;
+        final BindType bindType = bindTypeFor(context, attribute);
+        if ( bindType == null ) { // resolved from the value (type does not have a SQL type)
+            type = jdbcTypeForAttribute(context, attribute);
+            setter = ParameterSetter.forType(type);
+        }
+        else {
+            type = bindType.type; setter = bindType.setter;
+        }
         IRubyObject value = valueForDatabase(context, attribute);
 
         // All the set methods were calling this first so save a method call in the nil case
@@ -2560,63 +3824,147 @@ public class RubyJdbcConnection extends RubyObject {
             return;
         }
 
-        switch (type) {
-            case Types.TINYINT:
-            case Types.SMALLINT:
-            case Types.INTEGER:
-                setIntegerParameter(context, connection, statement, index, value, attribute, type);
-                break;
-            case Types.BIGINT:
-                setBigIntegerParameter(context, connection, statement, index, value, attribute, type);
-                break;
-            case Types.REAL:
-            case Types.FLOAT:
-            case Types.DOUBLE:
-                setDoubleParameter(context, connection, statement, index, value, attribute, type);
-                break;
-            case Types.NUMERIC:
-            case Types.DECIMAL:
-                setDecimalParameter(context, connection, statement, index, value, attribute, type);
-                break;
-            case Types.DATE:
-                setDateParameter(context, connection, statement, index, value, attribute, type);
-                break;
-            case Types.TIME:
-                setTimeParameter(context, connection, statement, index, value, attribute, type);
-                break;
-            case Types.TIMESTAMP:
-                setTimestampParameter(context, connection, statement, index, value, attribute, type);
-                break;
-            case Types.BIT:
-            case Types.BOOLEAN:
-                setBooleanParameter(context, connection, statement, index, value, attribute, type);
-                break;
-            case Types.SQLXML:
-                setXmlParameter(context, connection, statement, index, value, attribute, type);
-                break;
-            case Types.ARRAY:
-                setArrayParameter(context, connection, statement, index, value, attribute, type);
-                break;
-            case Types.JAVA_OBJECT:
-            case Types.OTHER:
-                setObjectParameter(context, connection, statement, index, value, attribute, type);
-                break;
-            case Types.BINARY:
-            case Types.VARBINARY:
-            case Types.LONGVARBINARY:
-            case Types.BLOB:
-                setBlobParameter(context, connection, statement, index, value, attribute, type);
-                break;
-            case Types.CLOB:
-            case Types.NCLOB: // JDBC 4.0
-                setClobParameter(context, connection, statement, index, value, attribute, type);
-                break;
-            case Types.CHAR:
-            case Types.VARCHAR:
-            case Types.NCHAR: // JDBC 4.0
-            case Types.NVARCHAR: // JDBC 4.0
-            default:
-                setStringParameter(context, connection, statement, index, value, attribute, type);
+        setter.set(this, context, connection, statement, index, value, attribute, type);
+    }
+
+    /**
+     * How (non-nil) values of a JDBC type get set as statement parameters.
+     */
+    private enum ParameterSetter {
+        INTEGER {
+            void set(RubyJdbcConnection self, ThreadContext context, Connection connection, PreparedStatement statement,
+                int index, IRubyObject value, IRubyObject attribute, int type) throws SQLException {
+                self.setIntegerParameter(context, connection, statement, index, value, attribute, type);
+            }
+        },
+        BIG_INTEGER {
+            void set(RubyJdbcConnection self, ThreadContext context, Connection connection, PreparedStatement statement,
+                int index, IRubyObject value, IRubyObject attribute, int type) throws SQLException {
+                self.setBigIntegerParameter(context, connection, statement, index, value, attribute, type);
+            }
+        },
+        DOUBLE {
+            void set(RubyJdbcConnection self, ThreadContext context, Connection connection, PreparedStatement statement,
+                int index, IRubyObject value, IRubyObject attribute, int type) throws SQLException {
+                self.setDoubleParameter(context, connection, statement, index, value, attribute, type);
+            }
+        },
+        DECIMAL {
+            void set(RubyJdbcConnection self, ThreadContext context, Connection connection, PreparedStatement statement,
+                int index, IRubyObject value, IRubyObject attribute, int type) throws SQLException {
+                self.setDecimalParameter(context, connection, statement, index, value, attribute, type);
+            }
+        },
+        DATE {
+            void set(RubyJdbcConnection self, ThreadContext context, Connection connection, PreparedStatement statement,
+                int index, IRubyObject value, IRubyObject attribute, int type) throws SQLException {
+                self.setDateParameter(context, connection, statement, index, value, attribute, type);
+            }
+        },
+        TIME {
+            void set(RubyJdbcConnection self, ThreadContext context, Connection connection, PreparedStatement statement,
+                int index, IRubyObject value, IRubyObject attribute, int type) throws SQLException {
+                self.setTimeParameter(context, connection, statement, index, value, attribute, type);
+            }
+        },
+        TIMESTAMP {
+            void set(RubyJdbcConnection self, ThreadContext context, Connection connection, PreparedStatement statement,
+                int index, IRubyObject value, IRubyObject attribute, int type) throws SQLException {
+                self.setTimestampParameter(context, connection, statement, index, value, attribute, type);
+            }
+        },
+        BOOLEAN {
+            void set(RubyJdbcConnection self, ThreadContext context, Connection connection, PreparedStatement statement,
+                int index, IRubyObject value, IRubyObject attribute, int type) throws SQLException {
+                self.setBooleanParameter(context, connection, statement, index, value, attribute, type);
+            }
+        },
+        XML {
+            void set(RubyJdbcConnection self, ThreadContext context, Connection connection, PreparedStatement statement,
+                int index, IRubyObject value, IRubyObject attribute, int type) throws SQLException {
+                self.setXmlParameter(context, connection, statement, index, value, attribute, type);
+            }
+        },
+        ARRAY {
+            void set(RubyJdbcConnection self, ThreadContext context, Connection connection, PreparedStatement statement,
+                int index, IRubyObject value, IRubyObject attribute, int type) throws SQLException {
+                self.setArrayParameter(context, connection, statement, index, value, attribute, type);
+            }
+        },
+        OBJECT {
+            void set(RubyJdbcConnection self, ThreadContext context, Connection connection, PreparedStatement statement,
+                int index, IRubyObject value, IRubyObject attribute, int type) throws SQLException {
+                self.setObjectParameter(context, connection, statement, index, value, attribute, type);
+            }
+        },
+        BLOB {
+            void set(RubyJdbcConnection self, ThreadContext context, Connection connection, PreparedStatement statement,
+                int index, IRubyObject value, IRubyObject attribute, int type) throws SQLException {
+                self.setBlobParameter(context, connection, statement, index, value, attribute, type);
+            }
+        },
+        CLOB {
+            void set(RubyJdbcConnection self, ThreadContext context, Connection connection, PreparedStatement statement,
+                int index, IRubyObject value, IRubyObject attribute, int type) throws SQLException {
+                self.setClobParameter(context, connection, statement, index, value, attribute, type);
+            }
+        },
+        STRING {
+            void set(RubyJdbcConnection self, ThreadContext context, Connection connection, PreparedStatement statement,
+                int index, IRubyObject value, IRubyObject attribute, int type) throws SQLException {
+                self.setStringParameter(context, connection, statement, index, value, attribute, type);
+            }
+        };
+
+        abstract void set(RubyJdbcConnection self, ThreadContext context, Connection connection, PreparedStatement statement,
+            int index, IRubyObject value, IRubyObject attribute, int type) throws SQLException;
+
+        static ParameterSetter forType(final int type) {
+            switch (type) {
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                case Types.INTEGER:
+                    return INTEGER;
+                case Types.BIGINT:
+                    return BIG_INTEGER;
+                case Types.REAL:
+                case Types.FLOAT:
+                case Types.DOUBLE:
+                    return DOUBLE;
+                case Types.NUMERIC:
+                case Types.DECIMAL:
+                    return DECIMAL;
+                case Types.DATE:
+                    return DATE;
+                case Types.TIME:
+                    return TIME;
+                case Types.TIMESTAMP:
+                    return TIMESTAMP;
+                case Types.BIT:
+                case Types.BOOLEAN:
+                    return BOOLEAN;
+                case Types.SQLXML:
+                    return XML;
+                case Types.ARRAY:
+                    return ARRAY;
+                case Types.JAVA_OBJECT:
+                case Types.OTHER:
+                    return OBJECT;
+                case Types.BINARY:
+                case Types.VARBINARY:
+                case Types.LONGVARBINARY:
+                case Types.BLOB:
+                    return BLOB;
+                case Types.CLOB:
+                case Types.NCLOB: // JDBC 4.0
+                    return CLOB;
+                case Types.CHAR:
+                case Types.VARCHAR:
+                case Types.NCHAR: // JDBC 4.0
+                case Types.NVARCHAR: // JDBC 4.0
+                default:
+                    return STRING;
+            }
         }
     }
 
@@ -2656,6 +4004,93 @@ public class RubyJdbcConnection extends RubyObject {
         JDBC_TYPE_FOR.put("nclob", Types.NCLOB);
     }
 
+    private static final int MAX_BIND_TYPES = 256;
+
+    /**
+     * A (resolved) bind type : the JDBC type and how values get set.
+     */
+    private static final class BindType {
+
+        // types without a SQL type (e.g. ActiveModel::Type::Value) get resolved from the value
+        static final BindType VALUE_BASED = new BindType(Types.OTHER, null);
+
+        final int type;
+        final ParameterSetter setter;
+
+        BindType(final int type, final ParameterSetter setter) {
+            this.type = type; this.setter = setter;
+        }
+
+    }
+
+    /**
+     * Compares (Ruby) objects by identity, without calling <code>hash</code> or <code>==</code>.
+     */
+    private static final class IdentityKey {
+
+        private final Object object;
+
+        IdentityKey(final Object object) { this.object = object; }
+
+        @Override
+        public int hashCode() { return System.identityHashCode(object); }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof IdentityKey && ((IdentityKey) other).object == object;
+        }
+
+    }
+
+    // AR type (identity) -> bind type, (least recently used) types are evicted when full
+    private transient LinkedHashMap<IdentityKey, BindType> bindTypes;
+
+    /**
+     * Resolves the JDBC type (and setter) of a bind, resolved types are cached per
+     * AR type (object) so that repeated binds of a type do not need to call into Ruby.
+     * @param context
+     * @param attribute the bind (AR attribute)
+     * @return bind type or null if it needs to be resolved from the value
+     * @throws SQLException
+     * @see #jdbcTypeForAttribute(ThreadContext, IRubyObject)
+     */
+    private BindType bindTypeFor(final ThreadContext context, final IRubyObject attribute) throws SQLException {
+        final IRubyObject attributeType = attributeType(context, attribute); // @type (no Ruby call)
+        if ( attributeType == null ) return null;
+
+        LinkedHashMap<IdentityKey, BindType> bindTypes = this.bindTypes;
+        if ( bindTypes == null ) {
+            this.bindTypes = bindTypes = new LinkedHashMap<>(32, 0.75f, true); // access-order
+        }
+
+        final IdentityKey key = new IdentityKey(attributeType);
+        BindType bindType = bindTypes.get(key);
+        if ( bindType == null ) {
+            if ( attributeType.callMethod(context, "type") == context.nil ) {
+                bindType = BindType.VALUE_BASED;
+            }
+            else {
+                final int type = jdbcTypeForAttribute(context, attribute);
+                bindType = new BindType(type, ParameterSetter.forType(type));
+            }
+            bindTypes.put(key, bindType);
+            // types created on the fly (e.g. for legacy binds) should not grow the cache forever
+            if ( bindTypes.size() > MAX_BIND_TYPES ) {
+                final Iterator<BindType> eldest = bindTypes.values().iterator();
+                eldest.next(); eldest.remove();
+            }
+        }
+        return bindType == BindType.VALUE_BASED ? null : bindType;
+    }
+
+    /**
+     * NOTE: the resolved type is cached per attribute type (object), unless
+     * the type does not have a SQL type (<code>type.type</code> being nil).
+     * @param context
+     * @param attribute
+     * @return JDBC type
+     * @throws SQLException
+     */
     protected int jdbcTypeForAttribute(final ThreadContext context,
         final IRubyObject attribute) throws SQLException {
 
@@ -2751,6 +4186,30 @@ public class RubyJdbcConnection extends RubyObject {
         return isDefaultTimeZoneUTC(context) ? DateTimeZone.UTC : getLocalTimeZone(context.runtime); // handles ENV['TZ']
     }
 
+    /**
+     * The default time zone snapshot-ed once per result, to be used when converting
+     * (result) values instead of {@link #getDefaultTimeZone(ThreadContext)}.
+     * @param context current thread context
+     * @return the time zone
+     */
+    protected final DateTimeZone getResultTimeZone(final ThreadContext context) {
+        return getResultZoneOffsets(context).getZone();
+    }
+
+    protected final ZoneOffsets getResultZoneOffsets(final ThreadContext context) {
+        return currentResult().getZoneOffsets(context);
+    }
+
+    final ZoneOffsets resolveZoneOffsets(final ThreadContext context) {
+        final DateTimeZone zone = getDefaultTimeZone(context);
+        final MappingState mapping = mapping();
+        ZoneOffsets offsets = mapping.zone;
+        if ( offsets == null || offsets.getZone() != zone ) {
+            mapping.zone = offsets = new ZoneOffsets(zone);
+        }
+        return offsets;
+    }
+
     private String default_timezone(final ThreadContext context) {
         final RubyClass base = getBase(context.runtime);
         return default_timezone.call(context, base, base).asJavaString(); // :utc (or :local)
@@ -3055,17 +4514,70 @@ public class RubyJdbcConnection extends RubyObject {
     }
 
     private void setConnection(final Connection connection) {
+        if ( statementCache != null ) statementCache.clear(); // statements of the previous connection
         close( getConnectionImpl() ); // close previously open connection if there is one
         dataWrapStruct(connection);
         if ( connection != null ) logDriverUsed(connection);
     }
 
+    /**
+     * Validates the connection, keeping track of the result for the keep-alive validator.
+     */
+    private boolean validateConnection(final ThreadContext context, final Connection connection) {
+        final KeepAliveValidator keepAlive = lockConnection(context);
+        if ( keepAlive == null ) return isConnectionValid(context, connection);
+        try {
+            final boolean valid = isConnectionValid(context, connection);
+            keepAlive.validated(valid);
+            return valid;
+        }
+        finally { unlockConnection(keepAlive); }
+    }
+
+    /**
+     * Locks the connection for (direct) use, so that it does not get validated
+     * in the background meanwhile.
+     * @return the locked keep-alive validator, null when keep-alive is not enabled
+     */
+    private KeepAliveValidator lockConnection(final ThreadContext context) {
+        final KeepAliveValidator keepAlive = this.keepAlive;
+        if ( keepAlive != null ) keepAlive.lock(context);
+        return keepAlive;
+    }
+
+    private static void unlockConnection(final KeepAliveValidator keepAlive) {
+        if ( keepAlive != null ) keepAlive.unlock();
+    }
+
+    /**
+     * Validates an idle connection (called by the keep-alive validator in the background).
+     * @return whether the connection is valid, null if not validated (not connected
+     * or within a transaction)
+     */
+    final Boolean validateIdleConnection() {
+        if ( ! connected ) return null;
+        final Connection connection = getConnectionImpl();
+        if ( connection == null ) return null;
+        try {
+            if ( ! connection.getAutoCommit() ) return null; // leave (open) transactions alone
+        }
+        catch (SQLException e) { return Boolean.FALSE; }
+        final ThreadContext context = getRuntime().getCurrentContext();
+        final int aliveTimeout = getAliveTimeout(context); // a hanging ping should not block the connection
+        return isConnectionValid(context, connection, aliveTimeout > 0 ? aliveTimeout : IDLE_VALIDATION_TIMEOUT);
+    }
+
+    private static final int IDLE_VALIDATION_TIMEOUT = 5; // seconds
+
     protected boolean isConnectionValid(final ThreadContext context, final Connection connection) {
+        return isConnectionValid(context, connection, getAliveTimeout(context));
+    }
+
+    private boolean isConnectionValid(final ThreadContext context, final Connection connection, final int aliveTimeout) {
         if ( connection == null ) return false;
         Statement statement = null;
         try {
             final String aliveSQL = getAliveSQL(context);
-            final int aliveTimeout = getAliveTimeout(context);
             if ( aliveSQL != null ) { // expect a SELECT/CALL SQL statement
                 statement = createStatement(context, connection);
                 statement.setQueryTimeout(aliveTimeout); // 0 - no timeout
@@ -3089,29 +4601,15 @@ public class RubyJdbcConnection extends RubyObject {
         finally { close(statement); }
     }
 
-    private static final String NIL_ALIVE_SQL = new String(); // no set value marker
-
-    private transient String aliveSQL = null;
-
     private String getAliveSQL(final ThreadContext context) {
-        if ( aliveSQL == null ) {
-            final IRubyObject alive_sql = getConfigValue(context, "connection_alive_sql");
-            aliveSQL = ( alive_sql == context.nil ) ? NIL_ALIVE_SQL : alive_sql.asString().toString();
-        }
-        return aliveSQL == NIL_ALIVE_SQL ? null : aliveSQL;
+        return getSettings().aliveSQL;
     }
 
-    private transient int aliveTimeout = Integer.MIN_VALUE;
-
     /**
      * internal API do not depend on it
      */
     protected int getAliveTimeout(final ThreadContext context) {
-        if ( aliveTimeout == Integer.MIN_VALUE ) {
-            final IRubyObject timeout = getConfigValue(context, "connection_alive_timeout");
-            return aliveTimeout = timeout == context.nil ? 0 : RubyInteger.fix2int(timeout);
-        }
-        return aliveTimeout;
+        return getSettings().aliveTimeout;
     }
 
     private boolean tableExists(final ThreadContext context,
@@ -3383,12 +4881,13 @@ public class RubyJdbcConnection extends RubyObject {
 
         final ColumnData[] columns = extractColumns(context, connection, resultSet, downCase);
 
-        final Ruby runtime = context.runtime;
-        final RubyArray results = runtime.newArray();
+        final ColumnConverter[] converters = newColumnConverters(context, columns);
+
+        final RubyArray results = context.runtime.newArray();
         // [ { 'col1': 1, 'col2': 2 }, { 'col1': 3, 'col2': 4 } ]
 
         while ( resultSet.next() ) {
-            results.append(mapRawRow(context, runtime, columns, resultSet, this));
+            results.append(mapRawRow(context, converters, columns, resultSet));
         }
         return results;
     }
@@ -3399,12 +4898,14 @@ public class RubyJdbcConnection extends RubyObject {
 
         final ColumnData[] columns = extractColumns(context, connection, resultSet, false);
 
-        final Ruby runtime = context.runtime;
+        final ColumnConverter[] converters = newColumnConverters(context, columns);
+        final ResultSettings result = currentResult();
+
         final IRubyObject[] blockArgs = new IRubyObject[columns.length];
         while ( resultSet.next() ) {
+            resumeResult(result); // the block might have mapped other results
             for ( int i = 0; i < columns.length; i++ ) {
-                final ColumnData column = columns[i];
-                blockArgs[i] = jdbcToRuby(context, runtime, column.index, column.type, resultSet);
+                blockArgs[i] = converters[i].convert(context, resultSet, columns[i].index);
             }
             block.call( context, blockArgs );
         }
@@ -3412,6 +4913,169 @@ public class RubyJdbcConnection extends RubyObject {
         return context.nil; // yielded result rows
     }
 
+    private IRubyObject yieldResultBatches(final ThreadContext context,
+            final Connection connection, final ResultSet resultSet,
+            final int batchSize, final Block block) throws SQLException {
+
+        final ColumnData[] columns = extractColumns(context, connection, resultSet, false);
+        final ColumnConverter[] converters = newColumnConverters(context, columns);
+        final ResultSettings result = currentResult();
+
+        final Ruby runtime = context.runtime;
+        RubyArray batch = RubyArray.newArray(runtime, batchSize);
+        while ( resultSet.next() ) {
+            resumeResult(result); // the block might have mapped other results
+            batch.append( mapRow(context, converters, columns, resultSet) );
+            if ( batch.size() == batchSize ) {
+                block.yield( context, batch ); // yield([ [id1, name1], [id2, name2] ... ])
+                batch = RubyArray.newArray(runtime, batchSize);
+            }
+        }
+        if ( ! batch.isEmpty() ) block.yield( context, batch );
+
+        return context.nil; // yielded result rows
+    }
+
+    /**
+     * Same as {@link #yieldResultBatches} but the next batch gets fetched (and converted)
+     * in the background while the block processes the current one.
+     * The prefetching thread converts values using its own (mapping) state and is not
+     * taken from the pool used for background queries (<code>QueryFuture</code>).
+     * NOTE: the connection should not be used from within the block meanwhile.
+     */
+    private IRubyObject yieldPrefetchedBatches(final ThreadContext context,
+            final Connection connection, final ResultSet resultSet,
+            final int batchSize, final Block block) throws SQLException {
+
+        final ColumnData[] columns = extractColumns(context, connection, resultSet, false);
+        final ColumnConverter[] converters = newColumnConverters(context, columns);
+
+        final ConversionSettings conversion = currentResult().conversion;
+
+        final BatchPrefetch prefetch = new BatchPrefetch(context.runtime, resultSet, batchSize, columns, converters, conversion);
+        final Future<?> fetching = PrefetchExecutor.INSTANCE.submit(prefetch);
+        try {
+            Object batch;
+            while ( ( batch = prefetch.next(context) ) != BatchPrefetch.END ) {
+                block.yield( context, (RubyArray) batch ); // while the next batch is fetched
+            }
+            return context.nil; // yielded result rows
+        }
+        finally {
+            prefetch.cancelled = true;
+            prefetch.queue.clear(); // the result set should not be used once we return
+            boolean interrupted = false;
+            while ( true ) {
+                try { fetching.get(); break; }
+                catch (InterruptedException e) { interrupted = true; }
+                catch (ExecutionException e) { break; } // reported through the queue
+            }
+            if ( interrupted ) Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Fetches (and converts) batches of rows in the background, at most one batch ahead.
+     */
+    private final class BatchPrefetch implements Runnable {
+
+        static final String END = "END";
+
+        final ArrayBlockingQueue<Object> queue = new ArrayBlockingQueue<Object>(1);
+        volatile boolean cancelled;
+
+        private final Ruby runtime;
+        private final ResultSet resultSet;
+        private final int batchSize;
+        private final ColumnData[] columns;
+        private final ColumnConverter[] converters;
+        private final ConversionSettings conversion;
+
+        BatchPrefetch(final Ruby runtime, final ResultSet resultSet, final int batchSize,
+            final ColumnData[] columns, final ColumnConverter[] converters, final ConversionSettings conversion) {
+            this.runtime = runtime;
+            this.resultSet = resultSet;
+            this.batchSize = batchSize;
+            this.columns = columns;
+            this.converters = converters;
+            this.conversion = conversion;
+        }
+
+        public void run() {
+            final ThreadContext context = runtime.getCurrentContext();
+            final MappingState mapping = new MappingState(Thread.currentThread());
+            mapping.result = new ResultSettings(RubyJdbcConnection.this, conversion);
+            prefetchMapping = mapping;
+            try {
+                RubyArray batch = RubyArray.newArray(runtime, batchSize);
+                while ( ! cancelled && resultSet.next() ) {
+                    batch.append( mapRow(context, converters, columns, resultSet) );
+                    if ( batch.size() == batchSize ) {
+                        if ( ! put(batch) ) return;
+                        batch = RubyArray.newArray(runtime, batchSize);
+                    }
+                }
+                if ( ! batch.isEmpty() && ! put(batch) ) return;
+                put(END);
+            }
+            catch (SQLException e) { put(e); }
+            catch (RuntimeException e) { put(e); }
+            catch (Error e) { put(e); }
+            finally {
+                if ( prefetchMapping == mapping ) prefetchMapping = null;
+            }
+        }
+
+        private boolean put(final Object item) {
+            try {
+                while ( ! queue.offer(item, 10, TimeUnit.MILLISECONDS) ) {
+                    if ( cancelled ) return false;
+                }
+                return true;
+            }
+            catch (InterruptedException e) { return false; }
+        }
+
+        /**
+         * @return the next batch (or END), waits for the batch to be fetched
+         */
+        Object next(final ThreadContext context) throws SQLException {
+            final Object next;
+            try { // interruptible - Thread#raise/kill will wake us up
+                next = context.getThread().executeTask(context, queue, new RubyThread.Task<ArrayBlockingQueue<Object>, Object>() {
+                    public Object run(ThreadContext context, ArrayBlockingQueue<Object> queue) throws InterruptedException {
+                        return queue.take();
+                    }
+                    public void wakeup(RubyThread thread, ArrayBlockingQueue<Object> queue) {
+                        thread.getNativeThread().interrupt();
+                    }
+                });
+            }
+            catch (InterruptedException e) {
+                context.pollThreadEvents();
+                throw context.runtime.newThreadError("interrupted");
+            }
+            if ( next instanceof SQLException ) throw (SQLException) next;
+            if ( next instanceof RuntimeException ) throw (RuntimeException) next;
+            if ( next instanceof Error ) throw (Error) next;
+            return next;
+        }
+
+    }
+
+    private static final class PrefetchExecutor { // lazy (holder) initialization
+
+        static final ExecutorService INSTANCE = Executors.newCachedThreadPool(new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+            public Thread newThread(final Runnable task) {
+                final Thread thread = new Thread(task, "arjdbc-prefetch-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+    }
+
     /**
      * Extract columns from result set.
      * @param context
@@ -3449,6 +5113,18 @@ public class RubyJdbcConnection extends RubyObject {
 
     private <T> T withConnection(final ThreadContext context, final boolean handleException,
                                  final Callable<T> block) throws RaiseException, SQLException {
+        final KeepAliveValidator keepAlive = lockConnection(context); // not validated in the background while in use
+        if ( keepAlive == null ) return withConnectionImpl(context, handleException, block);
+        try {
+            final T result = withConnectionImpl(context, handleException, block);
+            keepAlive.used();
+            return result;
+        }
+        finally { unlockConnection(keepAlive); }
+    }
+
+    private <T> T withConnectionImpl(final ThreadContext context, final boolean handleException,
+                                     final Callable<T> block) throws RaiseException, SQLException {
 
         Exception exception; int retry = 0; int i = 0;
 
@@ -3476,10 +5152,16 @@ public class RubyJdbcConnection extends RubyObject {
                 autoCommit = connection.getAutoCommit();
                 return block.call(connection);
             }
+            catch (final JumpException e) { // a Ruby exception (e.g. Thread#raise) or a break from a block
+                throw e;
+            }
+            catch (final ThreadKill e) {
+                throw e;
+            }
             catch (final Exception e) { // SQLException or RuntimeException
                 exception = e;
 
-                if ( i == 0 ) retry = 1;
+                if ( i == 0 ) retry = getSettings().retries;
 
                 if ( ! gotConnection ) { // SQLException from driver/data-source
                     reconnectOnRetry = connected;
@@ -3492,7 +5174,7 @@ public class RubyJdbcConnection extends RubyObject {
                     reconnectOnRetry = false; // continue;
                 }
                 else {
-                    if ( isConnectionValid(context, getConnectionImpl()) ) {
+                    if ( validateConnection(context, getConnectionImpl()) ) {
                         break; // connection not broken yet failed (do not retry)
                     }
 
@@ -3507,6 +5189,20 @@ public class RubyJdbcConnection extends RubyObject {
         return withConnectionError(context, exception, handleException, gotConnection);
     }
 
+    private static class SQLExceptionWrapper extends RuntimeException {
+
+        private static final long serialVersionUID = 6402586411327735962L;
+
+        SQLExceptionWrapper(SQLException cause) { super(cause); }
+
+        @Override
+        public SQLException getCause() { return (SQLException) super.getCause(); }
+
+        @Override
+        public Throwable fillInStackTrace() { return this; }
+
+    }
+
     // NOTE: this is meant to be internal - seeing this from the outside is a sign smt is not right!
     private static class NoConnectionException extends RuntimeException {
 
@@ -3669,32 +5365,42 @@ public class RubyJdbcConnection extends RubyObject {
         return StringHelper.startsWithIgnoreCase(bytes, start);
     }
 
-    // maps a AR::Result row
+    /**
+     * @deprecated use {@link #mapRow(ThreadContext, ColumnConverter[], ColumnData[], ResultSet)}
+     */
+    @Deprecated
     protected static IRubyObject mapRow(final ThreadContext context, final Ruby runtime,
         final ColumnData[] columns, final ResultSet resultSet,
         final RubyJdbcConnection connection) throws SQLException {
+        return mapRow(context, connection.newColumnConverters(context, columns), columns, resultSet);
+    }
+
+    // maps a AR::Result row
+    protected static IRubyObject mapRow(final ThreadContext context,
+        final ColumnConverter[] converters, final ColumnData[] columns,
+        final ResultSet resultSet) throws SQLException {
 
         final IRubyObject[] row = new IRubyObject[columns.length];
 
         for (int i = 0; i < columns.length; i++) {
-            final ColumnData column = columns[i];
-            row[i] = connection.jdbcToRuby(context, runtime, column.index, column.type, resultSet);
+            row[i] = converters[i].convert(context, resultSet, columns[i].index);
         }
 
         return RubyArray.newArrayNoCopy(context.runtime, row);
     }
 
-    private static IRubyObject mapRawRow(final ThreadContext context, final Ruby runtime,
-        final ColumnData[] columns, final ResultSet resultSet,
-        final RubyJdbcConnection connection) throws SQLException {
+    private static IRubyObject mapRawRow(final ThreadContext context,
+        final ColumnConverter[] converters, final ColumnData[] columns,
+        final ResultSet resultSet) throws SQLException {
 
+        final Ruby runtime = context.runtime;
         final RubyHash row = new RubyHash(runtime, columns.length);
 
         for ( int i = 0; i < columns.length; i++ ) {
             final ColumnData column = columns[i];
             // NOTE: we know keys are always String so maybe we could take it even further ?!
             row.fastASetCheckString(runtime, column.getName(context),
-                connection.jdbcToRuby(context, runtime, column.index, column.type, resultSet)
+                converters[i].convert(context, resultSet, column.index)
             );
         }
 
@@ -3796,8 +5502,10 @@ public class RubyJdbcConnection extends RubyObject {
         return extractTableName(connection, null, schema, tableName);
     }
 
+    private final CachingCallSite value_for_database_site = new FunctionalCachingCallSite("value_for_database");
+
     protected IRubyObject valueForDatabase(final ThreadContext context, final IRubyObject attribute) {
-        return attribute.callMethod(context, "value_for_database");
+        return value_for_database_site.call(context, attribute, attribute);
     }
 
     // FIXME: This should not be static and will be exposed via api in connection as instance method.
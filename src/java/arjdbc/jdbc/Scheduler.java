@@ -0,0 +1,63 @@
+package arjdbc.jdbc;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * (Shared) executors for background tasks, created lazily using daemon threads.
+ *
+ * Cancelling timed out statements gets a thread of its own, as other background
+ * work (keep-alive validation, connection pool housekeeping) might block on the
+ * network e.g. when connecting to (or pinging) an unreachable database.
+ */
+final class Scheduler {
+
+    private static final Scheduler WATCHDOG = new Scheduler("arjdbc-statement-watchdog", 1);
+    private static final Scheduler BACKGROUND = new Scheduler("arjdbc-background", 2);
+
+    private final String name;
+    private final int threads;
+    private volatile ScheduledThreadPoolExecutor executor;
+
+    private Scheduler(final String name, final int threads) {
+        this.name = name; this.threads = threads;
+    }
+
+    /**
+     * @return the executor for cancelling (timed out) statements, tasks are expected not to block
+     */
+    static ScheduledThreadPoolExecutor watchdog() {
+        return WATCHDOG.get();
+    }
+
+    /**
+     * @return the executor for background work that might block (validating, connecting and closing connections)
+     */
+    static ScheduledThreadPoolExecutor background() {
+        return BACKGROUND.get();
+    }
+
+    private ScheduledThreadPoolExecutor get() {
+        ScheduledThreadPoolExecutor executor = this.executor;
+        if ( executor == null ) {
+            synchronized (this) {
+                executor = this.executor;
+                if ( executor == null ) {
+                    final AtomicInteger count = new AtomicInteger();
+                    executor = new ScheduledThreadPoolExecutor(threads, new ThreadFactory() {
+                        public Thread newThread(final Runnable task) {
+                            final Thread thread = new Thread(task, name + '-' + count.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+                    executor.setRemoveOnCancelPolicy(true); // most statements complete in time
+                    this.executor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+}
@@ -0,0 +1,106 @@
+package arjdbc.jdbc;
+
+import java.sql.PreparedStatement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.jruby.Ruby;
+import org.jruby.RubyHash;
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+
+/**
+ * A (least recently used) cache of prepared statements, keyed by SQL.
+ * Statements evicted (or removed) from the cache get closed.
+ *
+ * NOTE: not thread-safe, meant to be used by a single connection.
+ *
+ * @see RubyJdbcConnection#execute_prepared_query
+ */
+final class StatementCache {
+
+    static final int DEFAULT_LIMIT = 1000; // same as AR's StatementPool
+
+    private final int limit;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+
+    private long hits, misses, evictions;
+    private long prepareTime; // nanos spent preparing (cached) statements
+
+    StatementCache(final int limit) {
+        this.limit = limit;
+        this.statements = new LinkedHashMap<>(Math.min(limit, 64), 0.75f, true); // access-order
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @param key
+     * @return the cached statement (marked as most recently used) or null
+     */
+    PreparedStatement get(final String key) {
+        final PreparedStatement statement = statements.get(key);
+        if ( statement == null ) misses++;
+        else hits++;
+        return statement;
+    }
+
+    /**
+     * Caches a (freshly prepared) statement, evicts the least recently used
+     * statement when the cache is full.
+     * @param key
+     * @param statement
+     * @param prepareTime nanos it took to prepare the statement
+     */
+    void put(final String key, final PreparedStatement statement, final long prepareTime) {
+        this.prepareTime += prepareTime;
+        final PreparedStatement previous = statements.put(key, statement);
+        if ( previous != null && previous != statement ) RubyJdbcConnection.close(previous);
+
+        if ( statements.size() > limit ) {
+            final Iterator<PreparedStatement> eldest = statements.values().iterator();
+            RubyJdbcConnection.close(eldest.next());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    boolean remove(final String key) {
+        final PreparedStatement statement = statements.remove(key);
+        if ( statement == null ) return false;
+        RubyJdbcConnection.close(statement);
+        return true;
+    }
+
+    void clear() {
+        for ( final PreparedStatement statement : statements.values() ) {
+            RubyJdbcConnection.close(statement);
+        }
+        statements.clear();
+    }
+
+    int size() {
+        return statements.size();
+    }
+
+    IRubyObject stats(final ThreadContext context) {
+        final Ruby runtime = context.runtime;
+        final RubyHash stats = RubyHash.newHash(runtime);
+        stats.fastASet(RubyJdbcConnection.cachedString(context, "size"), runtime.newFixnum(size()));
+        stats.fastASet(RubyJdbcConnection.cachedString(context, "limit"), runtime.newFixnum(limit));
+        stats.fastASet(RubyJdbcConnection.cachedString(context, "hits"), runtime.newFixnum(hits));
+        stats.fastASet(RubyJdbcConnection.cachedString(context, "misses"), runtime.newFixnum(misses));
+        stats.fastASet(RubyJdbcConnection.cachedString(context, "evictions"), runtime.newFixnum(evictions));
+        stats.fastASet(RubyJdbcConnection.cachedString(context, "prepare_time"), runtime.newFloat(prepareTime / 1e9)); // seconds
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return "StatementCache{size=" + size() + ", limit=" + limit + ", hits=" + hits +
+               ", misses=" + misses + ", evictions=" + evictions + '}';
+    }
+
+}
@@ -0,0 +1,38 @@
+package arjdbc.jdbc;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancels statements that run longer than their (statement) timeout.
+ * Used for timeouts <code>Statement#setQueryTimeout</code> can not express
+ * (sub-second ones) or when a driver's query timeout is not reliable.
+ *
+ * The cancelling is done by a single (shared) daemon thread, see {@link Scheduler#watchdog()}.
+ *
+ * @see RubyJdbcConnection#applyStatementTimeout(Statement)
+ */
+final class StatementWatchdog {
+
+    private StatementWatchdog() { /* static only */ }
+
+    /**
+     * @param statement
+     * @param timeout (in milliseconds)
+     * @return the scheduled cancel, to be cancelled once the statement completes
+     */
+    static ScheduledFuture<?> schedule(final Statement statement, final long timeout) {
+        return Scheduler.watchdog().schedule(new Runnable() {
+            public void run() {
+                try {
+                    statement.cancel();
+                }
+                catch (SQLException e) { /* closed or completed meanwhile */ }
+                catch (RuntimeException e) { /* driver failure - ignore */ }
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+    }
+
+}
@@ -0,0 +1,86 @@
+package arjdbc.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+
+import org.jruby.RubyHash;
+import org.jruby.RubyString;
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+import org.jruby.util.ByteList;
+
+/**
+ * A (per result column) string converter that detects low cardinality columns
+ * and hands out shared (frozen) strings for repeating values.
+ *
+ * The first {@link #SAMPLE_SIZE} values are used to decide whether to keep
+ * interning, if there's too many distinct values the dictionary is dropped
+ * and conversion falls back to the (plain) column converter.
+ *
+ * Values are always produced by the column converter (adapters decode strings
+ * differently), the dictionary is keyed on the converted string's bytes.
+ */
+final class StringDictionaryConverter implements ColumnConverter {
+
+    static final int SAMPLE_SIZE = 64;
+    static final int MAX_SIZE = 256; // max distinct values we keep
+
+    private static final int SAMPLING = 0;
+    private static final int INTERNING = 1;
+    private static final int DISABLED = 2;
+
+    private final ColumnConverter converter;
+
+    private HashMap<ByteList, RubyString> dictionary = new HashMap<>();
+    private int state = SAMPLING;
+    private int hits, misses;
+
+    StringDictionaryConverter(final ColumnConverter converter) {
+        this.converter = converter;
+    }
+
+    public IRubyObject convert(final ThreadContext context, final ResultSet resultSet, final int column) throws SQLException {
+        if ( state == DISABLED ) return converter.convert(context, resultSet, column);
+
+        final IRubyObject value = converter.convert(context, resultSet, column);
+        if ( ! ( value instanceof RubyString ) ) return value; // nil
+
+        final ByteList bytes = ((RubyString) value).getByteList();
+        RubyString str = dictionary.get(bytes);
+        if ( str != null ) { hits++; return str; }
+
+        misses++;
+        str = (RubyString) value;
+        str.setFrozen(true); // bytes (key) won't change
+
+        if ( state == SAMPLING ) {
+            dictionary.put(bytes, str);
+            if ( hits + misses == SAMPLE_SIZE ) {
+                // low cardinality - a quarter (or less) of the sampled values are distinct
+                state = dictionary.size() * 4 <= SAMPLE_SIZE ? INTERNING : DISABLED;
+                if ( state == DISABLED ) dictionary = null;
+            }
+        }
+        else if ( dictionary.size() < MAX_SIZE ) {
+            dictionary.put(bytes, str);
+        }
+        else if ( misses > hits ) { // dictionary full and not paying off
+            state = DISABLED; dictionary = null;
+        }
+        return str;
+    }
+
+    /**
+     * @param context current thread context
+     * @return { 'hits' => Integer, 'misses' => Integer, 'interned' => true/false }
+     */
+    IRubyObject stats(final ThreadContext context) {
+        final RubyHash stats = RubyHash.newHash(context.runtime);
+        stats.fastASet(RubyJdbcConnection.cachedString(context, "hits"), context.runtime.newFixnum(hits));
+        stats.fastASet(RubyJdbcConnection.cachedString(context, "misses"), context.runtime.newFixnum(misses));
+        stats.fastASet(RubyJdbcConnection.cachedString(context, "interned"), context.runtime.newBoolean(state != DISABLED));
+        return stats;
+    }
+
+}
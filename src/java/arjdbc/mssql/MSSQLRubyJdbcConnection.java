@@ -264,7 +264,7 @@ public class MSSQLRubyJdbcConnection extends RubyJdbcConnection {
 
       if (value == null) return context.nil;
 
-      return DateTimeUtils.parseDateTime(context, value, getDefaultTimeZone(context));
+      return DateTimeUtils.parseDateTime(context, value, getResultTimeZone(context));
     }
 
     // For some reason DateTimeUtils.parseTime does not work, similar issue
@@ -277,7 +277,7 @@ public class MSSQLRubyJdbcConnection extends RubyJdbcConnection {
 
       final String datetime_value = "2000-01-01 " + value;
 
-      return DateTimeUtils.parseDateTime(context, datetime_value, getDefaultTimeZone(context));
+      return DateTimeUtils.parseDateTime(context, datetime_value, getResultTimeZone(context));
     }
 
     // This overrides method in parent because of the issue in prepared
@@ -26,6 +26,8 @@
 package arjdbc.mysql;
 
 import arjdbc.jdbc.Callable;
+import arjdbc.jdbc.ColumnConverter;
+import arjdbc.jdbc.ColumnarRows;
 import arjdbc.jdbc.DriverWrapper;
 import arjdbc.jdbc.RubyJdbcConnection;
 import arjdbc.util.DateTimeUtils;
@@ -42,6 +44,8 @@ import java.sql.Types;
 
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
+import org.jcodings.Encoding;
+import org.jcodings.specific.UTF8Encoding;
 import org.jruby.*;
 import org.jruby.anno.JRubyMethod;
 import org.jruby.exceptions.RaiseException;
@@ -171,7 +175,12 @@ public class MySQLRubyJdbcConnection extends RubyJdbcConnection {
 
     @Override
     protected boolean doExecute(final Statement statement, final String query) throws SQLException {
-        return statement.execute(query, Statement.RETURN_GENERATED_KEYS);
+        return execute(statement, query, Statement.RETURN_GENERATED_KEYS);
+    }
+
+    @Override // Connector/J streams rows (one-by-one) only with a MIN_VALUE fetch size
+    protected int streamingFetchSize(final int fetchSize) {
+        return Integer.MIN_VALUE;
     }
 
     @Override
@@ -184,6 +193,29 @@ public class MySQLRubyJdbcConnection extends RubyJdbcConnection {
         return super.jdbcToRuby(context, runtime, column, type, resultSet);
     }
 
+    @Override
+    protected ColumnConverter newColumnConverter(final ThreadContext context, final ColumnData column) {
+        if ( column.type == Types.BIT ) return BIT_CONVERTER;
+        return super.newColumnConverter(context, column);
+    }
+
+    private static final ColumnConverter BIT_CONVERTER = new ColumnConverter() {
+        public IRubyObject convert(ThreadContext context, ResultSet resultSet, int column) throws SQLException {
+            final int value = resultSet.getInt(column);
+            return resultSet.wasNull() ? context.nil : context.runtime.newFixnum(value);
+        }
+    };
+
+    @Override // BIT is mapped as an integer and BIGINT might be UNSIGNED
+    protected ColumnarRows.Column newColumnBuffer(final ThreadContext context, final ColumnData column) {
+        switch (column.type) {
+            case Types.BIT:
+            case Types.BIGINT:
+                return new ColumnarRows.ObjectColumn(newColumnConverter(context, column), column.index);
+        }
+        return super.newColumnBuffer(context, column);
+    }
+
     @Override
     protected void setTimeParameter(final ThreadContext context,
         final Connection connection, final PreparedStatement statement,
@@ -203,11 +235,43 @@ public class MySQLRubyJdbcConnection extends RubyJdbcConnection {
             return resultSet.wasNull() ? context.nil : RubyString.newEmptyString(runtime);
         }
 
-        if ( rawDateTime != null && rawDateTime.booleanValue() ) {
+        if ( getConversionSettings().rawTime ) {
             return RubyString.newString(runtime, DateTimeUtils.dummyTimeToString(value));
         }
 
-        return DateTimeUtils.newDummyTime(context, value, getDefaultTimeZone(context));
+        return DateTimeUtils.newDummyTime(context, value, getResultTimeZone(context));
+    }
+
+    private transient Encoding stringBytesEncoding;
+    private transient boolean stringBytesEncodingResolved;
+
+    @Override // the driver returns (raw) bytes as received - in the characterEncoding
+    protected Encoding stringBytesEncoding(final ThreadContext context) {
+        if ( ! stringBytesEncodingResolved ) {
+            final IRubyObject properties = getConfigValue(context, "properties");
+            final String characterSetResults = getProperty(context, properties, "characterSetResults");
+            if ( isUTF8(getProperty(context, properties, "characterEncoding")) &&
+                ( characterSetResults == null || isUTF8(characterSetResults) ) ) {
+                stringBytesEncoding = UTF8Encoding.INSTANCE;
+            }
+            stringBytesEncodingResolved = true;
+        }
+        return stringBytesEncoding;
+    }
+
+    @Override // rewriteBatchedStatements: true collapses batched INSERTs into multi-row statements
+    protected boolean isBatchRewrittenByDriver(final ThreadContext context) {
+        return "true".equalsIgnoreCase(getDriverProperty(context, "rewriteBatchedStatements"));
+    }
+
+    private static String getProperty(final ThreadContext context, final IRubyObject properties, final String key) {
+        if ( ! ( properties instanceof RubyHash ) ) return null;
+        final IRubyObject value = ((RubyHash) properties).fastARef(context.runtime.newString(key));
+        return value == null || value.isNil() ? null : value.toString();
+    }
+
+    private static boolean isUTF8(final String charset) {
+        return "UTF-8".equalsIgnoreCase(charset) || "utf8".equalsIgnoreCase(charset) || "utf8mb4".equalsIgnoreCase(charset);
     }
 
     @Override
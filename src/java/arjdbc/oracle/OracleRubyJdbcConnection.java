@@ -32,6 +32,7 @@ Copyright (c) 2008-2011 Graham Jenkins, Michael Schoen, Raimonds Simanovskis
 package arjdbc.oracle;
 
 import arjdbc.jdbc.Callable;
+import arjdbc.jdbc.ColumnarRows;
 import arjdbc.jdbc.RubyJdbcConnection;
 import arjdbc.util.CallResultSet;
 
@@ -197,6 +198,18 @@ public class OracleRubyJdbcConnection extends RubyJdbcConnection {
         return RubyString.newUnicodeString(runtime, value);
     }
 
+    @Override // due our stringToRuby
+    protected ColumnarRows.Column newColumnBuffer(final ThreadContext context, final ColumnData column) {
+        switch (column.type) {
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+                return new ColumnarRows.ObjectColumn(newColumnConverter(context, column), column.index);
+        }
+        return super.newColumnBuffer(context, column);
+    }
+
     @Override
     protected IRubyObject readerToRuby(final ThreadContext context,
         final Ruby runtime, final ResultSet resultSet, final int column)
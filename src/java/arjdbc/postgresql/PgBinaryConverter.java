@@ -0,0 +1,144 @@
+package arjdbc.postgresql;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import arjdbc.jdbc.ColumnConverter;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.jruby.RubyFloat;
+import org.jruby.RubyString;
+import org.jruby.RubyTime;
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+import org.postgresql.PGResultSetMetaData;
+
+/**
+ * Decodes values transferred in the binary (wire) format straight into Ruby
+ * objects, skipping the driver's text round-trip. Whether a column has been
+ * sent as binary is decided (once) on the first converted value, columns sent
+ * as text (or of types not handled here) are converted using the fallback.
+ *
+ * @see PostgreSQLRubyJdbcConnection#newColumnConverter
+ */
+final class PgBinaryConverter implements ColumnConverter {
+
+    private static final int UNRESOLVED = -1;
+    private static final int TEXT = 0;
+    private static final int INT2 = 1;
+    private static final int INT4 = 2;
+    private static final int INT8 = 3;
+    private static final int FLOAT4 = 4;
+    private static final int FLOAT8 = 5;
+    private static final int BOOL = 6;
+    private static final int TIMESTAMP = 7;
+    private static final int TIMESTAMPTZ = 8;
+    private static final int UUID_ = 9;
+    private static final int BYTEA = 10;
+
+    // micro-seconds between 1970-01-01 and the PG epoch 2000-01-01
+    private static final long PG_EPOCH_MICROS = 946684800000000L;
+
+    private final ColumnConverter fallback;
+    private final DateTimeZone defaultZone; // only set for timestamp columns
+
+    private int decoder = UNRESOLVED;
+
+    PgBinaryConverter(final ColumnConverter fallback, final DateTimeZone defaultZone) {
+        this.fallback = fallback;
+        this.defaultZone = defaultZone;
+    }
+
+    public IRubyObject convert(final ThreadContext context, final ResultSet resultSet, final int column) throws SQLException {
+        if ( decoder == UNRESOLVED ) decoder = resolveDecoder(resultSet, column);
+        if ( decoder == TEXT ) return fallback.convert(context, resultSet, column);
+
+        final byte[] bytes = resultSet.getBytes(column); // NOTE: the driver's (binary) row data - not a copy
+        if ( bytes == null ) return context.nil;
+
+        switch ( decoder ) {
+            case INT2:
+                return context.runtime.newFixnum((short) ((bytes[0] & 0xFF) << 8 | (bytes[1] & 0xFF)));
+            case INT4:
+                return context.runtime.newFixnum(readInt(bytes, 0));
+            case INT8:
+                return context.runtime.newFixnum(readLong(bytes, 0));
+            case FLOAT4:
+                return context.runtime.newFloat(Float.intBitsToFloat(readInt(bytes, 0)));
+            case FLOAT8:
+                return context.runtime.newFloat(Double.longBitsToDouble(readLong(bytes, 0)));
+            case BOOL:
+                return context.runtime.newBoolean(bytes[0] != 0);
+            case TIMESTAMP:
+                return newTime(context, readLong(bytes, 0), false);
+            case TIMESTAMPTZ:
+                return newTime(context, readLong(bytes, 0), true);
+            case UUID_:
+                return context.runtime.newString(new UUID(readLong(bytes, 0), readLong(bytes, 8)).toString());
+            case BYTEA:
+                return RubyString.newString(context.runtime, bytes); // copies
+        }
+        return fallback.convert(context, resultSet, column);
+    }
+
+    private IRubyObject newTime(final ThreadContext context, final long pgMicros, final boolean withZone) {
+        if ( pgMicros == Long.MAX_VALUE ) return RubyFloat.newFloat(context.runtime, RubyFloat.INFINITY);
+        if ( pgMicros == Long.MIN_VALUE ) return RubyFloat.newFloat(context.runtime, -RubyFloat.INFINITY);
+
+        final long micros = pgMicros + PG_EPOCH_MICROS;
+        long millis = micros / 1000; int usec = (int) (micros % 1000);
+        if ( usec < 0 ) { millis--; usec += 1000; }
+
+        DateTime dateTime;
+        if ( withZone ) { // an instant
+            dateTime = new DateTime(millis, defaultZone);
+        }
+        else { // local date-time (fields) in the default zone
+            dateTime = new DateTime(millis, DateTimeZone.UTC).withZoneRetainFields(defaultZone);
+        }
+        return RubyTime.newTime(context.runtime, dateTime, usec * 1000L);
+    }
+
+    private static int resolveDecoder(final ResultSet resultSet, final int column) throws SQLException {
+        final ResultSetMetaData metaData = resultSet.getMetaData();
+        final PGResultSetMetaData pgMetaData;
+        if ( metaData instanceof PGResultSetMetaData ) {
+            pgMetaData = (PGResultSetMetaData) metaData;
+        }
+        else if ( metaData.isWrapperFor(PGResultSetMetaData.class) ) {
+            pgMetaData = metaData.unwrap(PGResultSetMetaData.class);
+        }
+        else {
+            return TEXT;
+        }
+
+        if ( pgMetaData.getFormat(column) != 1 ) return TEXT; // 0 - text, 1 - binary
+
+        switch ( metaData.getColumnTypeName(column) ) {
+            case "int2": return INT2;
+            case "int4": return INT4;
+            case "int8": return INT8;
+            case "float4": return FLOAT4;
+            case "float8": return FLOAT8;
+            case "bool": return BOOL;
+            case "timestamp": return TIMESTAMP;
+            case "timestamptz": return TIMESTAMPTZ;
+            case "uuid": return UUID_;
+            case "bytea": return BYTEA;
+        }
+        return TEXT;
+    }
+
+    private static int readInt(final byte[] bytes, final int offset) {
+        return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16 |
+               (bytes[offset + 2] & 0xFF) << 8 | (bytes[offset + 3] & 0xFF);
+    }
+
+    private static long readLong(final byte[] bytes, final int offset) {
+        return ((long) readInt(bytes, offset) << 32) | (readInt(bytes, offset + 4) & 0xFFFFFFFFL);
+    }
+
+}
@@ -0,0 +1,51 @@
+package arjdbc.postgresql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import arjdbc.jdbc.ColumnConverter;
+import arjdbc.util.StringHelper;
+
+import org.jruby.RubyHash;
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+import org.jruby.runtime.callsite.CachingCallSite;
+import org.jruby.runtime.callsite.NormalCachingCallSite;
+
+import static arjdbc.jdbc.RubyJdbcConnection.STRING_CACHE;
+
+/**
+ * Converts values of a column using the decoder its type is mapped to (in the
+ * <code>typemap</code>). The decoder is looked up once per (result) column on
+ * the first converted value, columns without a decoder use the fallback.
+ *
+ * @see PostgreSQLRubyJdbcConnection#typemap_set
+ */
+final class PgTypeMapConverter implements ColumnConverter {
+
+    private final RubyHash typeMap;
+    private final ColumnConverter fallback;
+
+    private IRubyObject decoder; // null - not yet resolved, nil - none mapped
+    // a decoder per column - the call-site sees a single receiver class
+    private final CachingCallSite decode = new NormalCachingCallSite("decode");
+
+    PgTypeMapConverter(final RubyHash typeMap, final ColumnConverter fallback) {
+        this.typeMap = typeMap;
+        this.fallback = fallback;
+    }
+
+    public IRubyObject convert(final ThreadContext context, final ResultSet resultSet, final int column) throws SQLException {
+        IRubyObject decoder = this.decoder;
+        if ( decoder == null ) {
+            final String typeName = resultSet.getMetaData().getColumnTypeName(column);
+            this.decoder = decoder = typeMap.op_aref(context, STRING_CACHE.get(context, typeName));
+        }
+        if ( decoder == context.nil ) return fallback.convert(context, resultSet, column);
+
+        final String value = resultSet.getString(column);
+        if ( value == null ) return context.nil;
+        return decode.call(context, decoder, decoder, StringHelper.newDefaultInternalString(context.runtime, value));
+    }
+
+}
@@ -18,7 +18,6 @@ import org.jruby.RubyNumeric;
 import org.jruby.RubyString;
 import org.jruby.anno.JRubyMethod;
 import org.jruby.runtime.Block;
-import org.jruby.runtime.Helpers;
 import org.jruby.runtime.ObjectAllocator;
 import org.jruby.runtime.ThreadContext;
 import org.jruby.runtime.builtin.IRubyObject;
@@ -30,8 +29,9 @@ import org.jruby.runtime.builtin.IRubyObject;
 public class PostgreSQLResult extends JdbcResult {
     private RubyArray fields = null; // lazily created if PG fields method is called.
 
-    // These are needed when generating an AR::Result
-    private final ResultSetMetaData resultSetMetaData;
+    // These are needed when generating an AR::Result (released once the type map is built)
+    private ResultSetMetaData resultSetMetaData;
+    private IRubyObject columnTypeMap;
 
     /********* JRuby compat methods ***********/
 
@@ -72,11 +72,13 @@ public class PostgreSQLResult extends JdbcResult {
      */
     @Override
     protected IRubyObject columnTypeMap(final ThreadContext context) throws SQLException {
+        if (columnTypeMap != null) return columnTypeMap;
+
         Ruby runtime = context.runtime;
         RubyHash types = RubyHash.newHash(runtime);
         int columnCount = columnNames.length;
 
-        IRubyObject adapter = connection.adapter(context);
+        final PostgreSQLRubyJdbcConnection connection = (PostgreSQLRubyJdbcConnection) this.connection;
         for (int i = 0; i < columnCount; i++) {
             int col = i + 1;
             String typeName = resultSetMetaData.getColumnTypeName(col);
@@ -93,15 +95,13 @@ public class PostgreSQLResult extends JdbcResult {
             }
 
             final RubyString name = columnNames[i];
-            final IRubyObject type = Helpers.invoke(context, adapter, "get_oid_type",
-                    runtime.newString(typeName),
-                    runtime.newFixnum(mod),
-                    name);
+            final IRubyObject type = connection.getOidType(context, typeName, mod, name);
 
             if (!type.isNil()) types.fastASet(name, type);
         }
 
-        return types;
+        resultSetMetaData = null; // no longer needed, let the driver's field info go
+        return columnTypeMap = types;
     }
 
     /**
@@ -129,6 +129,27 @@ public class PostgreSQLResult extends JdbcResult {
         }
     }
 
+    /**
+     * Same as {@link #each(ThreadContext, Block)} but yields read-only (hash-like)
+     * <code>JdbcConnection::ResultRow</code> views instead of building a Hash for each row.
+     * @param context the thread this is being executed on
+     * @param block which may handle each row
+     * @return this object or RubyNil
+     */
+    @JRubyMethod
+    public IRubyObject each_row(ThreadContext context, Block block) {
+        if (block.isGiven()) {
+            final int rows = values.getLength();
+            for (int i = 0; i < rows; i++) {
+                block.yield(context, newRow(context, i));
+            }
+
+            return this;
+        } else {
+            return context.nil;
+        }
+    }
+
     private RubyClass getBinaryDataClass(final ThreadContext context) {
         return ((RubyModule) context.runtime.getModule("ActiveModel").getConstantAt("Type")).getClass("Binary").getClass("Data");
     }
@@ -27,6 +27,9 @@
 package arjdbc.postgresql;
 
 import arjdbc.jdbc.Callable;
+import arjdbc.jdbc.ColumnarRows;
+import arjdbc.jdbc.ColumnConverter;
+import arjdbc.jdbc.ConversionSettings;
 import arjdbc.jdbc.DriverWrapper;
 import arjdbc.util.DateTimeUtils;
 import arjdbc.util.PG;
@@ -42,6 +45,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.ArrayList;
@@ -49,14 +53,18 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 
+import org.jcodings.Encoding;
+import org.jcodings.specific.UTF8Encoding;
 import org.jruby.*;
 import org.jruby.anno.JRubyMethod;
 import org.jruby.exceptions.RaiseException;
 import org.jruby.ext.bigdecimal.RubyBigDecimal;
 import org.jruby.javasupport.JavaUtil;
+import org.jruby.runtime.Helpers;
 import org.jruby.runtime.ObjectAllocator;
 import org.jruby.runtime.ThreadContext;
 import org.jruby.runtime.builtin.IRubyObject;
@@ -118,6 +126,7 @@ public class PostgreSQLRubyJdbcConnection extends arjdbc.jdbc.RubyJdbcConnection
 
     private RubyClass resultClass;
     private RubyHash typeMap = null;
+    private boolean binaryTransfer; // decode binary (transferred) values directly
 
     public PostgreSQLRubyJdbcConnection(Ruby runtime, RubyClass metaClass) {
         super(runtime, metaClass);
@@ -235,6 +244,19 @@ public class PostgreSQLRubyJdbcConnection extends arjdbc.jdbc.RubyJdbcConnection
     }
 
 
+    @Override
+    protected void doInitialize(final ThreadContext context, final IRubyObject config, final IRubyObject adapter) {
+        super.doInitialize(context, config, adapter);
+
+        final IRubyObject value = getConfigValue(context, "binary_transfer");
+        this.binaryTransfer = value != context.nil && value != context.runtime.getFalse();
+    }
+
+    @Override // reWriteBatchedInserts: true collapses batched INSERTs into multi-row statements
+    protected boolean isBatchRewrittenByDriver(final ThreadContext context) {
+        return "true".equalsIgnoreCase(getDriverProperty(context, "reWriteBatchedInserts"));
+    }
+
     @Override
     protected Connection newConnection() throws RaiseException, SQLException {
         final Connection connection;
@@ -284,6 +306,29 @@ public class PostgreSQLRubyJdbcConnection extends arjdbc.jdbc.RubyJdbcConnection
         return mapExecuteResult(context, connection, resultSet).toARResult(context);
     }
 
+    // INSERT ... RETURNING "id" (see sql_for_insert) - the key is the statement's result
+    @Override
+    protected boolean isInsertPkGeneratedKeys() {
+        return false;
+    }
+
+    @Override
+    protected IRubyObject mapInsertPk(final ThreadContext context, final Connection connection,
+                                      final Statement statement, final boolean hasResult) throws SQLException {
+        if ( ! hasResult ) return context.nil;
+        final ResultSet resultSet = statement.getResultSet();
+        try {
+            return mapPrimaryKey(context, resultSet);
+        }
+        finally { close(resultSet); }
+    }
+
+    @Override // same as exec_query results, AR needs the (OID) column types to cast values
+    protected IRubyObject mapMultiResult(final ThreadContext context, final Connection connection,
+                                         final ResultSet resultSet) throws SQLException {
+        return mapQueryResult(context, connection, resultSet);
+    }
+
     @Override
     protected void setArrayParameter(final ThreadContext context,
                                      final Connection connection, final PreparedStatement statement,
@@ -491,6 +536,46 @@ public class PostgreSQLRubyJdbcConnection extends arjdbc.jdbc.RubyJdbcConnection
                 super.jdbcToRuby(context, runtime, column, type, resultSet);
     }
 
+    @Override // the driver only uses a (server-side) cursor with auto-commit off
+    protected boolean streamingRequiresTransaction() {
+        return true;
+    }
+
+    @Override
+    protected ColumnConverter newColumnConverter(final ThreadContext context, final ColumnData column) {
+        final ColumnConverter converter = newColumnConverterNoTypeMap(context, column);
+        // NOTE: resolved (lazily) per result column, the map might change between queries
+        return typeMap != null ? new PgTypeMapConverter(typeMap, converter) : converter;
+    }
+
+    @Override
+    protected ColumnarRows.Column newColumnBuffer(final ThreadContext context, final ColumnData column) {
+        if (typeMap != null) { // any type might have a decoder mapped
+            return new ColumnarRows.ObjectColumn(newColumnConverter(context, column), column.index);
+        }
+        return super.newColumnBuffer(context, column);
+    }
+
+    private ColumnConverter newColumnConverterNoTypeMap(final ThreadContext context, final ColumnData column) {
+        final ColumnConverter converter = super.newColumnConverter(context, column);
+        if (binaryTransfer) {
+            final ConversionSettings settings = getConversionSettings();
+            switch (column.type) {
+                case Types.TIMESTAMP:
+                    if (settings.rawTimestamp) break; // let the driver format the value
+                    return new PgBinaryConverter(converter, getResultTimeZone(context));
+                case Types.BIT: case Types.BOOLEAN:
+                    if (settings.rawBoolean) break;
+                    return new PgBinaryConverter(converter, null);
+                case Types.SMALLINT: case Types.INTEGER: case Types.BIGINT:
+                case Types.REAL: case Types.DOUBLE:
+                case Types.OTHER: case Types.BINARY:
+                    return new PgBinaryConverter(converter, null);
+            }
+        }
+        return converter;
+    }
+
     private IRubyObject convertWithTypeMap(ThreadContext context, Ruby runtime, int column, int type, ResultSet resultSet) throws SQLException {
         ResultSetMetaData metaData = resultSet.getMetaData();
         IRubyObject decoder = typeMap.op_aref(context, STRING_CACHE.get(context, metaData.getColumnTypeName(column)));
@@ -726,7 +811,7 @@ public class PostgreSQLRubyJdbcConnection extends arjdbc.jdbc.RubyJdbcConnection
             if (infinity != null) return infinity;
         }
 
-        return DateTimeUtils.parseDate(context, value, getDefaultTimeZone(context));
+        return DateTimeUtils.parseDate(context, value, getResultTimeZone(context));
     }
 
 
@@ -788,6 +873,11 @@ public class PostgreSQLRubyJdbcConnection extends arjdbc.jdbc.RubyJdbcConnection
         return stringToRuby(context, runtime, resultSet, index);
     }
 
+    @Override // the driver always uses a client_encoding of UTF8
+    protected Encoding stringBytesEncoding(final ThreadContext context) {
+        return UTF8Encoding.INSTANCE;
+    }
+
     /**
      * Converts a string column into a Ruby string by pulling the raw bytes from the column and
      * turning them into a string using the default encoding
@@ -818,7 +908,7 @@ public class PostgreSQLRubyJdbcConnection extends arjdbc.jdbc.RubyJdbcConnection
     protected IRubyObject timeToRuby(ThreadContext context, Ruby runtime, ResultSet resultSet, int column) throws SQLException {
         final String value = resultSet.getString(column); // Using resultSet.getTimestamp(column) only gets .999 (3) precision
 
-        return value == null ? context.nil : DateTimeUtils.parseTime(context, value, getDefaultTimeZone(context));
+        return value == null ? context.nil : DateTimeUtils.parseTime(context, value, getResultTimeZone(context));
     }
 
     /**
@@ -847,7 +937,7 @@ public class PostgreSQLRubyJdbcConnection extends arjdbc.jdbc.RubyJdbcConnection
         }
 
         // handles '0001-01-01 23:59:59 BC'
-        return DateTimeUtils.parseDateTime(context, value, getDefaultTimeZone(context));
+        return DateTimeUtils.parseDateTime(context, value, getResultTimeZone(context));
     }
 
     private IRubyObject parseInfinity(final Ruby runtime, final String value) {
@@ -987,6 +1077,36 @@ public class PostgreSQLRubyJdbcConnection extends arjdbc.jdbc.RubyJdbcConnection
 
     }
 
+    // (type name, fmod) -> AR type (as resolved by the adapter's get_oid_type), cleared on reload_type_map
+    private final Map<String, IRubyObject> oidTypes = new ConcurrentHashMap<>(32);
+
+    /**
+     * Resolves the (AR) type for a result column, only calls into Ruby
+     * (the adapter's <code>get_oid_type</code>) on a cache miss.
+     * @param context
+     * @param typeName the (PG) column type name
+     * @param fmod type modifier, only non-zero for numeric columns
+     * @param name the column name
+     * @return resolved type
+     */
+    IRubyObject getOidType(final ThreadContext context, final String typeName, final int fmod, final RubyString name) {
+        final String key = fmod == 0 ? typeName : typeName + '(' + fmod + ')';
+        IRubyObject type = oidTypes.get(key);
+        if (type != null) return type;
+
+        final Ruby runtime = context.runtime;
+        type = Helpers.invoke(context, adapter(context), "get_oid_type",
+                runtime.newString(typeName), runtime.newFixnum(fmod), name);
+        if (!type.isNil()) oidTypes.put(key, type);
+        return type;
+    }
+
+    @JRubyMethod(name = "clear_oid_type_cache")
+    public IRubyObject clear_oid_type_cache(final ThreadContext context) {
+        oidTypes.clear();
+        return context.nil;
+    }
+
     @PG @JRubyMethod
     public IRubyObject escape_string(ThreadContext context, IRubyObject string) {
         return PostgreSQLModule.quote_string(context, this, string);
@@ -56,6 +56,8 @@ import org.jruby.runtime.builtin.IRubyObject;
 import org.jruby.util.SafePropertyAccessor;
 
 import arjdbc.jdbc.Callable;
+import arjdbc.jdbc.ColumnConverter;
+import arjdbc.jdbc.ColumnarRows;
 import arjdbc.jdbc.RubyJdbcConnection;
 
 import static arjdbc.util.StringHelper.newDefaultInternalString;
@@ -152,6 +154,13 @@ public class SQLite3RubyJdbcConnection extends RubyJdbcConnection {
         });
     }
 
+    // the driver reads last_insert_rowid() for getGeneratedKeys (no need to ask for keys),
+    // statements (e.g. INSERT INTO t DEFAULT VALUES) are run using execute (not executeUpdate)
+    @Override
+    protected boolean isInsertPkGeneratedKeys() {
+        return false;
+    }
+
     // NOTE: interestingly it supports getGeneratedKeys but not executeUpdate
     // + the driver does not report it supports it via the meta-data yet does
     @Override
@@ -163,9 +172,9 @@ public class SQLite3RubyJdbcConnection extends RubyJdbcConnection {
     protected Statement createStatement(final ThreadContext context, final Connection connection)
         throws SQLException {
         final Statement statement = connection.createStatement();
-        IRubyObject escapeProcessing = getConfigValue(context, "statement_escape_processing");
-        if ( escapeProcessing != null && ! escapeProcessing.isNil() ) {
-            statement.setEscapeProcessing( escapeProcessing.isTrue() );
+        final Boolean escapeProcessing = getSettings().escapeProcessing;
+        if ( escapeProcessing != null ) {
+            statement.setEscapeProcessing( escapeProcessing.booleanValue() );
         }
         // else leave as is by default
         return statement;
@@ -297,6 +306,16 @@ public class SQLite3RubyJdbcConnection extends RubyJdbcConnection {
         return super.jdbcToRuby(context, runtime, column, type, resultSet);
     }
 
+    @Override // column types might differ from row to row (see jdbcToRuby)
+    protected ColumnConverter newColumnConverter(final ThreadContext context, final ColumnData column) {
+        return jdbcToRubyConverter(column);
+    }
+
+    @Override // column types might differ from row to row (see jdbcToRuby)
+    protected ColumnarRows.Column newColumnBuffer(final ThreadContext context, final ColumnData column) {
+        return new ColumnarRows.ObjectColumn(newColumnConverter(context, column), column.index);
+    }
+
     @Override
     protected IRubyObject stringToRuby(final ThreadContext context,
         final Ruby runtime, final ResultSet resultSet, final int column) throws SQLException {
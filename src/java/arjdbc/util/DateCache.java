@@ -0,0 +1,34 @@
+package arjdbc.util;
+
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+
+/**
+ * A small (direct mapped) cache of recently created Ruby dates, date columns
+ * tend to be highly repetitive (and consecutive days do not collide).
+ *
+ * NOTE: not thread-safe, meant to be used by a single connection.
+ */
+public final class DateCache {
+
+    private static final int SIZE = 64; // power of 2
+
+    private final long[] days = new long[SIZE];
+    private final IRubyObject[] dates = new IRubyObject[SIZE];
+
+    /**
+     * @param context current thread context
+     * @param epochDay days since 1970-01-01
+     * @return a (possibly cached) date
+     */
+    public IRubyObject getDate(final ThreadContext context, final long epochDay) {
+        final int index = (int) (epochDay & (SIZE - 1));
+        IRubyObject date = dates[index];
+        if ( date != null && days[index] == epochDay ) return date;
+
+        date = DateTimeUtils.newDate(context, epochDay);
+        days[index] = epochDay; dates[index] = date;
+        return date;
+    }
+
+}
@@ -32,8 +32,11 @@ import org.joda.time.Chronology;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.joda.time.chrono.GJChronology;
+import org.joda.time.chrono.GregorianChronology;
 import org.joda.time.chrono.ISOChronology;
 import org.jruby.Ruby;
+import org.jruby.RubyClass;
+import org.jruby.RubyFixnum;
 import org.jruby.RubyFloat;
 import org.jruby.RubyString;
 import org.jruby.RubyTime;
@@ -239,6 +242,32 @@ public abstract class DateTimeUtils {
         return RubyTime.newTime(context.runtime, dateTime, nanos);
     }
 
+    // 1582-10-15 (before the cut-over java.util dates are Julian while Joda's ISO is proleptic Gregorian)
+    private static final long GREGORIAN_CUTOVER = -12219292800000L;
+
+    /**
+     * Fast(er) version of {@link #newTime(ThreadContext, Timestamp, DateTimeZone)}, instead
+     * of going through the (deprecated) field getters the local time gets computed using
+     * the offsets of the zone the driver used to create the timestamp.
+     * @param context current thread context
+     * @param timestamp the timestamp
+     * @param javaZone the (JVM default) zone the driver created the timestamp in
+     * @param zone offsets of the zone the (local) timestamp value is to be interpreted in
+     * @return a time
+     */
+    public static RubyTime newTime(final ThreadContext context, final Timestamp timestamp,
+        final TimeZone javaZone, final ZoneOffsets zone) {
+
+        final long time = timestamp.getTime();
+        if ( time < GREGORIAN_CUTOVER ) return newTime(context, timestamp, zone.getZone());
+
+        final int nanos = timestamp.getNanos(); // max 999-999-999
+        final long local = time + javaZone.getOffset(time);
+
+        DateTime dateTime = new DateTime(local - zone.getOffsetFromLocal(local), zone.getChronology());
+        return RubyTime.newTime(context.runtime, dateTime, nanos % 1000000);
+    }
+
     @SuppressWarnings("deprecation")
     public static RubyTime newDateAsTime(final ThreadContext context, final Date date, final DateTimeZone zone) {
 
@@ -260,6 +289,51 @@ public abstract class DateTimeUtils {
         return newDate(context, year, month, day, ISOChronology.getInstance(zone));
     }
 
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
+
+    /**
+     * Creates a Ruby <code>Date</code> directly, the same way <code>Time#to_date</code> would.
+     * @param context current thread context
+     * @param date the date
+     * @param javaZone the (JVM default) zone the driver created the date in
+     * @param cache (optional) cache of recently created dates
+     * @return a date
+     */
+    @SuppressWarnings("deprecation")
+    public static IRubyObject newDate(final ThreadContext context, final Date date,
+        final TimeZone javaZone, final DateCache cache) {
+
+        final long time = date.getTime();
+        if ( time < GREGORIAN_CUTOVER ) { // java.util dates are Julian (before the cut-over)
+            return newDate(context, date.getYear() + 1900, date.getMonth() + 1, date.getDate());
+        }
+
+        final long local = time + javaZone.getOffset(time);
+        long day = local / MILLIS_PER_DAY; if ( local % MILLIS_PER_DAY < 0 ) day--;
+        return cache == null ? newDate(context, day) : cache.getDate(context, day);
+    }
+
+    /**
+     * @param context current thread context
+     * @param epochDay days since 1970-01-01
+     * @return a date (as returned by <code>Time#to_date</code>)
+     */
+    public static IRubyObject newDate(final ThreadContext context, final long epochDay) {
+        return newGregorianDate(context, new DateTime(epochDay * MILLIS_PER_DAY, GregorianChronology.getInstanceUTC()));
+    }
+
+    private static IRubyObject newDate(final ThreadContext context, final int year, final int month, final int day) {
+        return newGregorianDate(context, new DateTime(year, month, day, 0, 0, 0, 0, GregorianChronology.getInstanceUTC()));
+    }
+
+    private static IRubyObject newGregorianDate(final ThreadContext context, final DateTime dateTime) {
+        final Ruby runtime = context.runtime;
+        final RubyClass Date = runtime.getClass("Date");
+        // Date.new!(dt, of = 0, sg = GREGORIAN) - same as what Date.civil(y, m, d, Date::GREGORIAN) does
+        return Date.newInstance(context, Java.getInstance(runtime, dateTime), RubyFixnum.zero(runtime),
+                Date.getConstant("GREGORIAN"), Block.NULL_BLOCK);
+    }
+
     // @Deprecated
     public static Timestamp convertToTimestamp(final RubyFloat value) {
         final Timestamp timestamp = new Timestamp(value.getLongValue() * 1000); // millis
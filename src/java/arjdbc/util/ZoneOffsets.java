@@ -0,0 +1,75 @@
+package arjdbc.util;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTimeZone;
+import org.joda.time.chrono.ISOChronology;
+
+/**
+ * Caches the offset (transition) period last looked up for a zone, consecutive
+ * (result) values tend to fall into the same period so most look-ups end up
+ * being a range check.
+ *
+ * NOTE: not thread-safe, meant to be used by a single connection (query).
+ */
+public final class ZoneOffsets {
+
+    // DST shifts are (way) less than a day, away from a transition local times are unambiguous
+    private static final long TRANSITION_MARGIN = 24 * 60 * 60 * 1000;
+
+    private final DateTimeZone zone;
+    private final Chronology chronology;
+
+    private long start = 0, end = 0; // [start, end) of the cached period
+    private int offset;
+
+    public ZoneOffsets(final DateTimeZone zone) {
+        this.zone = zone;
+        this.chronology = ISOChronology.getInstance(zone);
+    }
+
+    public DateTimeZone getZone() {
+        return zone;
+    }
+
+    public Chronology getChronology() {
+        return chronology;
+    }
+
+    /**
+     * @param instant millis from the epoch (UTC)
+     * @return the zone's offset (to add to UTC) at the given instant
+     */
+    public int getOffset(final long instant) {
+        if ( instant >= start && instant < end ) return offset;
+
+        offset = zone.getOffset(instant);
+        if ( zone.isFixed() ) {
+            start = Long.MIN_VALUE; end = Long.MAX_VALUE;
+        }
+        else {
+            final long next = zone.nextTransition(instant);
+            end = next == instant ? Long.MAX_VALUE : next;
+            final long prev = zone.previousTransition(instant + 1); // transition at (or before) instant
+            start = prev == instant + 1 ? Long.MIN_VALUE : prev;
+        }
+        return offset;
+    }
+
+    /**
+     * @param localMillis local (wall) time millis
+     * @return the offset to subtract from the local time to get UTC
+     * @see DateTimeZone#getOffsetFromLocal(long)
+     */
+    public int getOffsetFromLocal(final long localMillis) {
+        final int offsetLocal = getOffset(localMillis);
+        final long instant = localMillis - offsetLocal;
+        final int offset = getOffset(instant);
+        if ( offset == offsetLocal &&
+            ( start == Long.MIN_VALUE || instant - start >= TRANSITION_MARGIN ) &&
+            ( end == Long.MAX_VALUE || end - instant >= TRANSITION_MARGIN ) ) {
+            return offset;
+        }
+        return zone.getOffsetFromLocal(localMillis); // gap/overlap handling
+    }
+
+}
@@ -0,0 +1,82 @@
+# -*- encoding : utf-8 -*-
+require 'db/h2'
+require 'jdbc_common'
+
+class H2ColumnarResultTest < Test::Unit::TestCase
+
+  def setup
+    super
+    ActiveRecord::Base.clear_active_connections!
+    @config = current_connection_config.dup
+    ActiveRecord::Base.establish_connection @config.merge(:columnar_results => true)
+
+    connection.execute 'CREATE TABLE columnar_things (id INTEGER, big BIGINT, amount DOUBLE, flag BOOLEAN, name VARCHAR(100), price DECIMAL(10,2))'
+    connection.execute "INSERT INTO columnar_things VALUES (1, 10000000000, 1.5, TRUE, 'one', 1.25)"
+    connection.execute "INSERT INTO columnar_things VALUES (2, NULL, NULL, NULL, NULL, NULL)"
+    connection.execute "INSERT INTO columnar_things VALUES (3, -3, 0.0, FALSE, 'tři', 0)"
+  end
+
+  def teardown
+    connection.execute 'DROP TABLE columnar_things'
+    ActiveRecord::Base.clear_active_connections!
+    ActiveRecord::Base.establish_connection @config
+    super
+  end
+
+  test 'returns a (lazy) AR result' do
+    result = connection.exec_query 'SELECT * FROM columnar_things ORDER BY id'
+    assert_kind_of ActiveRecord::Result, result
+    assert_equal 3, result.length
+    assert ! result.empty?
+    assert_nil result.instance_variable_get(:@rows)
+
+    assert_equal %w(ID BIG AMOUNT FLAG NAME PRICE), result.columns.map(&:upcase)
+    assert_equal [ 1, 2, 3 ], result.column_values(0)
+    assert_nil result.instance_variable_get(:@rows)
+  end
+
+  test 'materializes rows' do
+    result = connection.exec_query 'SELECT * FROM columnar_things ORDER BY id'
+    assert_equal [ 1, 10000000000, 1.5, true, 'one', BigDecimal('1.25') ], result.rows[0]
+    assert_equal [ 2, nil, nil, nil, nil, nil ], result.rows[1]
+    assert_equal [ 3, -3, 0.0, false, 'tři', BigDecimal('0') ], result.rows[2]
+    assert_equal Encoding::UTF_8, result.rows[2][4].encoding
+
+    assert_equal 'one', result.first[ result.columns[4] ]
+    assert_equal [ 1, 2, 3 ], result.map { |row| row[ result.columns[0] ] }
+  end
+
+  test 'first and last on a fresh result' do
+    result = connection.exec_query 'SELECT * FROM columnar_things ORDER BY id'
+    assert_equal 'one', result.first[ result.columns[4] ]
+    result = connection.exec_query 'SELECT * FROM columnar_things ORDER BY id'
+    assert_equal 3, result.last[ result.columns[0] ]
+
+    row = connection.select_one 'SELECT * FROM columnar_things WHERE id = 3'
+    assert_equal 'tři', row[ row.keys[4] ]
+    assert_nil connection.select_one('SELECT * FROM columnar_things WHERE id < 0')
+  end
+
+  test 'empty result' do
+    result = connection.exec_query 'SELECT * FROM columnar_things WHERE id < 0'
+    assert result.empty?
+    assert_equal 0, result.length
+    assert_equal [], result.to_a
+  end
+
+  test 'works with models' do
+    CreateEntries.up
+    Entry.create! :title => 'columnar', :rating => 1.5
+    assert_equal 'columnar', Entry.where(:title => 'columnar').first.title
+    assert_equal [ 'columnar' ], Entry.pluck(:title)
+  ensure
+    MigrationSetup.silent_down CreateEntries
+  end
+
+  private
+
+  def connection
+    ActiveRecord::Base.connection
+  end
+
+end
@@ -0,0 +1,66 @@
+require 'db/h2'
+require 'jdbc_common'
+
+class H2ConnectionPoolTest < Test::Unit::TestCase
+
+  def setup
+    super
+    ActiveRecord::Base.clear_active_connections!
+    @config = current_connection_config.dup
+    ActiveRecord::Base.establish_connection @config.merge(:jdbc_pool => true, :jdbc_pool_size => 2, :jdbc_pool_checkout_timeout => 0.5)
+  end
+
+  def teardown
+    ActiveRecord::Base.connection_pool.disconnect!
+    ActiveRecord::Base.establish_connection @config
+    super
+  end
+
+  test 'physical connections get re-used on reconnect' do
+    physical = physical_connection
+    connection.reconnect!
+    assert_same physical, physical_connection
+    assert_equal [ [ 1 ] ], connection.exec_query('SELECT 1').rows
+  end
+
+  test 'unwrapped connection is the pooled one' do
+    jdbc_connection = connection.raw_connection.jdbc_connection
+    assert_same jdbc_connection, connection.raw_connection.jdbc_connection(true)
+  end
+
+  test 'physical connection closed behind the pool\'s back is not handed out again' do
+    physical = physical_connection
+    physical.close
+    connection.reconnect!
+    assert_not_same physical, physical_connection
+    assert_equal [ [ 1 ] ], connection.exec_query('SELECT 1').rows
+  end
+
+  test 'returned connections get reset' do
+    connection.raw_connection.jdbc_connection.setAutoCommit(false)
+    connection.reconnect!
+    assert connection.raw_connection.jdbc_connection.getAutoCommit
+  end
+
+  test 'pool is shared (and bounded) among connections with the same config' do
+    other = ActiveRecord::Base.connection_pool.checkout # uses the second (physical) connection
+    begin
+      assert_same connection.raw_connection.connection_factory, other.raw_connection.connection_factory
+
+      start = Time.now
+      assert_raise(ActiveRecord::ConnectionNotEstablished, ActiveRecord::JDBCError) do
+        ActiveRecord::Base.connection_pool.checkout
+      end
+      assert (Time.now - start) < 3, "checkout not timed out (took #{Time.now - start}s)"
+    ensure
+      ActiveRecord::Base.connection_pool.checkin other
+    end
+  end
+
+  private
+
+  def physical_connection
+    connection.raw_connection.jdbc_connection.unwrap(Java::OrgH2Jdbc::JdbcConnection.java_class)
+  end
+
+end
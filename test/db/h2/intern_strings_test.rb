@@ -0,0 +1,49 @@
+require 'db/h2'
+require 'jdbc_common'
+
+class H2InternStringsTest < Test::Unit::TestCase
+
+  def setup
+    super
+    ActiveRecord::Base.clear_active_connections!
+    @config = current_connection_config.dup
+    ActiveRecord::Base.establish_connection @config.merge(:intern_strings => true)
+
+    connection.execute 'CREATE TABLE interned_things (id INTEGER, status VARCHAR(20), name VARCHAR(100))'
+    200.times do |i|
+      connection.execute "INSERT INTO interned_things VALUES (#{i}, '#{ %w(new open closed)[i % 3] }', 'name #{i}')"
+    end
+  end
+
+  def teardown
+    connection.execute 'DROP TABLE interned_things'
+    ActiveRecord::Base.clear_active_connections!
+    ActiveRecord::Base.establish_connection @config
+    super
+  end
+
+  test 'shares low cardinality strings' do
+    result = connection.exec_query 'SELECT status, name FROM interned_things ORDER BY id'
+    statuses = result.rows.map(&:first)
+    assert_equal %w(new open closed new), statuses.first(4)
+    assert_same statuses[0], statuses[3]
+    assert statuses[0].frozen?
+
+    names = result.rows.map(&:last)
+    assert_equal 'name 199', names.last
+    assert ! names.last.frozen?
+
+    stats = result.string_dictionary_stats
+    assert_equal 197, stats['status']['hits']
+    assert_equal 3, stats['status']['misses']
+    assert_equal true, stats['status']['interned']
+    assert_equal false, stats['name']['interned']
+  end
+
+  private
+
+  def connection
+    ActiveRecord::Base.connection
+  end
+
+end
@@ -0,0 +1,44 @@
+require 'db/h2'
+require 'jdbc_common'
+
+class H2KeepAliveTest < Test::Unit::TestCase
+
+  def setup
+    super
+    ActiveRecord::Base.clear_active_connections!
+    @config = current_connection_config.dup
+  end
+
+  def teardown
+    ActiveRecord::Base.connection_pool.disconnect!
+    ActiveRecord::Base.establish_connection @config
+    super
+  end
+
+  test 'recently used connections are active without validation' do
+    # validating using the (failing) alive SQL would report the connection as not active
+    ActiveRecord::Base.establish_connection @config.merge(:connection_keep_alive => 5, :connection_alive_sql => 'SELECT * FROM missing')
+    connection.execute 'SELECT 1'
+    assert connection.active?
+  end
+
+  test 'idle connections get validated in the background' do
+    ActiveRecord::Base.establish_connection @config.merge(:connection_keep_alive => 0.2)
+    assert connection.active?
+
+    connection.raw_connection.jdbc_connection(true).close
+    sleep 0.8
+    assert ! connection.active?
+
+    connection.reconnect!
+    assert connection.active?
+    assert_equal [ [ 1 ] ], connection.exec_query('SELECT 1').rows
+  end
+
+  test 'an invalid interval is reported' do
+    ActiveRecord::Base.establish_connection @config.merge(:connection_keep_alive => 'often')
+    error = assert_raise(ArgumentError) { ActiveRecord::Base.connection }
+    assert_match(/connection_keep_alive/, error.message)
+  end
+
+end
@@ -0,0 +1,72 @@
+require 'db/h2'
+require 'jdbc_common'
+
+class H2RawConversionTest < Test::Unit::TestCase
+
+  SELECT = "SELECT DATE '2018-02-03' AS d, TIMESTAMP '2018-02-03 04:05:06' AS ts, TRUE AS b"
+
+  def setup
+    super
+    ActiveRecord::Base.clear_active_connections!
+    @config = current_connection_config.dup
+  end
+
+  def teardown
+    ActiveRecord::Base.clear_active_connections!
+    ActiveRecord::Base.establish_connection @config
+    super
+  end
+
+  test 'raw date time configured per connection' do
+    ActiveRecord::Base.establish_connection @config.merge(:raw_date_time => true)
+    row = select_row
+    assert_equal '2018-02-03', row[0]
+    assert_kind_of String, row[1]
+    assert_match(/^2018-02-03 04:05:06/, row[1])
+    assert_equal true, row[2]
+  end
+
+  test 'raw boolean configured per connection' do
+    ActiveRecord::Base.establish_connection @config.merge(:raw_boolean => true)
+    row = select_row
+    assert_kind_of Date, row[0]
+    assert_kind_of Time, row[1]
+    assert_equal 'TRUE', row[2].to_s.upcase
+  end
+
+  test 'per connection setting overrides the global default' do
+    raw_date_time = ActiveRecord::ConnectionAdapters::JdbcConnection.raw_date_time?
+    ActiveRecord::ConnectionAdapters::JdbcConnection.raw_date_time = true
+    begin
+      ActiveRecord::Base.establish_connection @config.merge(:raw_date_time => false, :raw_timestamp => true)
+      row = select_row
+      assert_kind_of Date, row[0]
+      assert_kind_of String, row[1]
+    ensure
+      ActiveRecord::ConnectionAdapters::JdbcConnection.raw_date_time = raw_date_time
+    end
+  end
+
+  test 'a streamed result keeps its settings while other queries run' do
+    raw_boolean = ActiveRecord::ConnectionAdapters::JdbcConnection.raw_boolean?
+    ActiveRecord::ConnectionAdapters::JdbcConnection.raw_boolean = false
+    begin
+      values = []
+      ActiveRecord::Base.connection.exec_query_each('SELECT TRUE AS b UNION ALL SELECT FALSE AS b') do |row|
+        values << row.values.first
+        ActiveRecord::ConnectionAdapters::JdbcConnection.raw_boolean = true
+        assert_equal 'TRUE', select_row[2].to_s.upcase # nested result (raw)
+      end
+      assert_equal [ true, false ], values
+    ensure
+      ActiveRecord::ConnectionAdapters::JdbcConnection.raw_boolean = raw_boolean
+    end
+  end
+
+  private
+
+  def select_row
+    ActiveRecord::Base.connection.exec_query(SELECT).rows.first
+  end
+
+end
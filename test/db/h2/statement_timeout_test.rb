@@ -0,0 +1,57 @@
+require 'db/h2'
+require 'jdbc_common'
+require 'timeout'
+
+class H2StatementTimeoutTest < Test::Unit::TestCase
+
+  SLOW = 'SELECT SUM(X) FROM SYSTEM_RANGE(1, 3000000000)'
+
+  def setup
+    super
+    ActiveRecord::Base.clear_active_connections!
+    @config = current_connection_config.dup
+  end
+
+  def teardown
+    ActiveRecord::Base.clear_active_connections!
+    ActiveRecord::Base.establish_connection @config
+    super
+  end
+
+  test 'statement timeout configured per connection' do
+    ActiveRecord::Base.establish_connection @config.merge(:statement_timeout => 1)
+    assert_equal 1.0, connection.raw_connection.statement_timeout
+    assert_cancelled(3) { connection.execute SLOW }
+    assert_equal [ [ 1 ] ], connection.exec_query('SELECT 1').rows
+  end
+
+  test 'sub-second statement timeout (watchdog)' do
+    ActiveRecord::Base.establish_connection @config.merge(:statement_timeout => 0.2)
+    assert_cancelled(2) { connection.exec_query SLOW }
+  end
+
+  test 'statement timeout override' do
+    ActiveRecord::Base.establish_connection @config.merge(:statement_timeout => 60)
+    connection.with_statement_timeout(0.2) do
+      assert_equal 0.2, connection.raw_connection.statement_timeout
+      assert_cancelled(2) { connection.exec_query SLOW }
+    end
+    assert_equal 60.0, connection.raw_connection.statement_timeout
+  end
+
+  test 'interrupting the thread cancels the statement' do
+    start = Time.now
+    assert_raise(Timeout::Error) { Timeout.timeout(0.3) { connection.execute SLOW } }
+    assert (Time.now - start) < 3, "statement not cancelled (took #{Time.now - start}s)"
+    assert_equal [ [ 2 ] ], connection.exec_query('SELECT 2').rows
+  end
+
+  private
+
+  def assert_cancelled(max_seconds)
+    start = Time.now
+    assert_raise(ActiveRecord::StatementInvalid) { yield }
+    assert (Time.now - start) < max_seconds, "statement not cancelled (took #{Time.now - start}s)"
+  end
+
+end
@@ -465,6 +465,24 @@ class MySQLSimpleTest < Test::Unit::TestCase
     connection.reconnect!
   end
 
+  def test_exec_batch_rewritten_by_driver
+    config = current_connection_config.dup
+    config[:properties] = ( config[:properties] || {} ).dup # connection methods fill in driver properties
+    ActiveRecord::Base.establish_connection config.merge(:batch_rewrite_limit => 100)
+    assert_equal 'true', connection.config[:properties]['rewriteBatchedStatements'].to_s
+
+    type = ActiveRecord::Type::String.new
+    binds_list = (1..3).map do |i|
+      [ ActiveRecord::Relation::QueryAttribute.new('title', "batch #{i}", type) ]
+    end
+    counts = connection.exec_batch('INSERT INTO entries (title) VALUES (?)', 'SQL', binds_list)
+    # the driver reports SUCCESS_NO_INFO, while the adapter's multi-row INSERT would report 1 per row
+    assert_equal [ nil, nil, nil ], counts
+    assert_equal 3, Entry.where("title LIKE 'batch %'").count
+  ensure
+    ActiveRecord::Base.establish_connection current_connection_config
+  end
+
   protected
 
   def with_bulk_change_table(table)
@@ -0,0 +1,50 @@
+require 'test_helper'
+require 'db/postgres'
+
+class PostgreSQLBinaryTransferTest < Test::Unit::TestCase
+
+  SELECT = "SELECT 1::int2 AS i2, 42::int4 AS i4, 4200000000::int8 AS i8, 1.5::float8 AS f8, true AS b, " <<
+    "'2018-02-03 04:05:06.789012'::timestamp AS ts, 'infinity'::timestamp AS inf, " <<
+    "'a0eebc99-9c0b-4ef8-bb6d-6bb9bd380a11'::uuid AS u, '\\x00ff'::bytea AS bin, " <<
+    "NULL::int4 AS n, 'text' AS t WHERE 1 = ?"
+
+  test 'decodes binary transferred values' do
+    text_values = select_values
+
+    run_with_connection_removed do |config|
+      ActiveRecord::Base.establish_connection(config.merge(:binary_transfer => true))
+      values = select_values
+
+      assert_equal 1, values['i2']
+      assert_equal 42, values['i4']
+      assert_equal 4200000000, values['i8']
+      assert_equal 1.5, values['f8']
+      assert_equal true, values['b']
+      assert_equal 'a0eebc99-9c0b-4ef8-bb6d-6bb9bd380a11', values['u']
+      assert_equal "\x00\xFF".force_encoding('BINARY'), values['bin'].to_s
+      assert_equal 789012, values['ts'].usec
+      assert_nil values['n']
+      assert_equal 'text', values['t']
+
+      assert_equal text_values, values
+    end
+  end
+
+  private
+
+  def select_values
+    binds = [ ActiveRecord::Relation::QueryAttribute.new('id', 1, ActiveRecord::Type::Integer.new) ]
+    result = ActiveRecord::Base.connection.exec_query(SELECT, 'SQL', binds)
+    result.to_a.first
+  end
+
+  def run_with_connection_removed
+    config = ActiveRecord::Base.remove_connection
+    begin
+      yield config
+    ensure
+      ActiveRecord::Base.establish_connection(config)
+    end
+  end
+
+end
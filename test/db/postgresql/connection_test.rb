@@ -37,6 +37,52 @@ class PostgreSQLConnectionTest < Test::Unit::TestCase
       assert_equal [ [ 5150, 'some data' ] ], result
     end
 
+    def test_exec_query_each_restores_auto_commit
+      5.times { |i| connection.insert("INSERT INTO ex (number, data) VALUES (#{i}, 'data #{i}')") }
+
+      numbers = connection.exec_query_each('SELECT number FROM ex ORDER BY id', 'SQL', [], :fetch_size => 2).map { |row| row['number'] }
+      assert_equal [ 0, 1, 2, 3, 4 ], numbers
+      assert connection.raw_connection.jdbc_connection.getAutoCommit
+
+      connection.transaction do
+        connection.exec_query_each('SELECT number FROM ex') { break }
+        assert ! connection.raw_connection.jdbc_connection.getAutoCommit
+      end
+    end
+
+    def test_exec_query_each_does_not_commit_the_callers_transaction
+      connection.transaction do
+        connection.insert("INSERT INTO ex (number, data) VALUES (1, 'rolled back')")
+        assert_equal 1, connection.exec_query_each('SELECT number FROM ex').to_a.size
+        raise ActiveRecord::Rollback
+      end
+      assert_equal [], connection.exec_query_each('SELECT number FROM ex').to_a
+    end
+
+    def test_raw_result_rows
+      connection.insert("INSERT INTO ex (number, data) VALUES (42, 'some data')")
+
+      result = connection.raw_connection.execute('SELECT number, data FROM ex')
+      assert_instance_of Hash, result.first
+      assert_equal({ 'number' => 42, 'data' => 'some data' }, result.first)
+      assert_equal result.first, result[0]
+      assert_equal [ [ 42, 'some data' ] ], result.values
+    end
+
+    def test_raw_result_row_views
+      connection.insert("INSERT INTO ex (number, data) VALUES (42, 'some data')")
+
+      result = connection.raw_connection.execute('SELECT number, data FROM ex')
+      rows = []; result.each_row { |row| rows << row }
+      row = rows.first
+      assert_equal 42, row['number']
+      assert_equal 'some data', row.fetch('data')
+      assert_nil row['missing']
+      assert_equal [ 'number', 'data' ], row.keys
+      assert_equal({ 'number' => 42, 'data' => 'some data' }, row.to_h)
+      assert_equal result[0], row.to_h
+    end
+
   end
 
   private
@@ -78,4 +78,19 @@ class PostgresqlOOIDTypesTest < Test::Unit::TestCase
     assert_equal int_range, SomeSample.type_for_attribute("my_int_range")
   end
 
+  def test_result_column_types_are_cached_until_reload
+    types = @connection.exec_query("SELECT 1::int4 AS i, 1.5::numeric(5,2) AS n").column_types
+    assert_kind_of ActiveRecord::Type::Integer, types['i']
+    assert_equal 2, types['n'].scale
+
+    types2 = @connection.exec_query("SELECT 2::int4 AS i, 2.5::numeric(5,2) AS n").column_types
+    assert_same types['i'], types2['i']
+    assert_same types['n'], types2['n']
+
+    @connection.reload_type_map
+    types3 = @connection.exec_query("SELECT 3::int4 AS i").column_types
+    assert_kind_of ActiveRecord::Type::Integer, types3['i']
+    assert_not_same types['i'], types3['i']
+  end
+
 end
@@ -0,0 +1,79 @@
+require 'test_helper'
+require 'db/postgres'
+
+class PostgreSQLStatementCacheTest < Test::Unit::TestCase
+
+  def setup
+    super
+    @config = ActiveRecord::Base.remove_connection
+    ActiveRecord::Base.establish_connection(@config.merge(:statement_limit => 2))
+  end
+
+  def teardown
+    ActiveRecord::Base.remove_connection
+    ActiveRecord::Base.establish_connection(@config)
+    super
+  end
+
+  test 'caches prepared statements with LRU eviction' do
+    connection.clear_cache!
+    stats = connection.statement_cache_stats
+    assert_equal 0, stats['size']
+    assert_equal 2, stats['limit']
+
+    assert_equal [ [ 1 ] ], select_value(1)
+    assert_equal [ [ 1 ] ], select_value(1)
+    stats = connection.statement_cache_stats
+    assert_equal 1, stats['size']
+    assert_equal 1, stats['hits']
+    assert_equal 1, stats['misses']
+    assert stats['prepare_time'] >= 0
+
+    select_value(2); select_value(1); select_value(3) # evicts 2 (least recently used)
+    stats = connection.statement_cache_stats
+    assert_equal 2, stats['size']
+    assert_equal 1, stats['evictions']
+
+    select_value(1)
+    assert_equal 3, connection.statement_cache_stats['hits']
+
+    connection.clear_cache!
+    assert_equal 0, connection.statement_cache_stats['size']
+  end
+
+  test 'reuses cached statements for inserts and updates' do
+    connection.execute 'CREATE TEMPORARY TABLE cached_writes (id SERIAL PRIMARY KEY, v INTEGER)'
+    connection.clear_cache!
+    int = ActiveRecord::Type::Integer.new
+    insert = 'INSERT INTO cached_writes (v) VALUES (?)'
+    update = 'UPDATE cached_writes SET v = ? WHERE v = ?'
+
+    3.times do |i|
+      connection.exec_insert insert, 'SQL', [ ActiveRecord::Relation::QueryAttribute.new('v', i, int) ]
+    end
+    2.times do |i|
+      binds = [ ActiveRecord::Relation::QueryAttribute.new('v', i + 10, int), ActiveRecord::Relation::QueryAttribute.new('v', i, int) ]
+      assert_equal 1, connection.exec_update(update, 'SQL', binds)
+    end
+
+    stats = connection.statement_cache_stats
+    assert_equal 2, stats['size']
+    assert_equal 2, stats['misses']
+    assert_equal 3, stats['hits']
+    assert_equal [ 10, 11, 2 ], connection.select_values('SELECT v FROM cached_writes ORDER BY id').map(&:to_i)
+  ensure
+    connection.execute 'DROP TABLE IF EXISTS cached_writes'
+  end
+
+  private
+
+  def select_value(i)
+    binds = [ ActiveRecord::Relation::QueryAttribute.new('v', i, ActiveRecord::Type::Integer.new) ]
+    connection.exec_query("SELECT ?::int AS v#{i}, #{i} AS n", 'SQL', binds, prepare: true).rows.map { |row| [ row.first ] }
+  end
+
+  def connection
+    ActiveRecord::Base.connection
+  end
+
+end
@@ -0,0 +1,43 @@
+require 'test_helper'
+require 'db/postgres'
+
+class PostgreSQLTypeMapTest < Test::Unit::TestCase
+
+  class UpcaseDecoder
+    attr_reader :calls
+    def initialize; @calls = 0 end
+    def decode(value); @calls += 1; value.upcase end
+  end
+
+  def teardown
+    connection.raw_connection.typemap = nil
+    super
+  end
+
+  test 'decodes mapped column types' do
+    decoder = UpcaseDecoder.new
+    connection.raw_connection.typemap = { 'text' => decoder }
+
+    rows = connection.exec_query("SELECT x::text AS t, x AS i FROM (VALUES (1), (2), (NULL)) v(x)").rows
+    assert_equal [ [ '1', 1 ], [ '2', 2 ], [ nil, nil ] ], rows
+    assert_equal 2, decoder.calls
+
+    rows = connection.exec_query("SELECT 'abc'::text AS t, 'def'::varchar AS v").rows
+    assert_equal [ [ 'ABC', 'def' ] ], rows
+  end
+
+  test 'uses the current type map' do
+    connection.raw_connection.typemap = { 'text' => UpcaseDecoder.new }
+    assert_equal [ [ 'ABC' ] ], connection.exec_query("SELECT 'abc'::text").rows
+
+    connection.raw_connection.typemap = nil
+    assert_equal [ [ 'abc' ] ], connection.exec_query("SELECT 'abc'::text").rows
+  end
+
+  private
+
+  def connection
+    ActiveRecord::Base.connection
+  end
+
+end
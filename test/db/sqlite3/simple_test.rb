@@ -31,6 +31,20 @@ class SQLite3SimpleTest < Test::Unit::TestCase
     assert_equal 'Execute Update', Entry.first.title
   end
 
+  def test_insert_fixtures_set_unknown_column
+    require 'active_record/fixtures'
+    error = assert_raise(ActiveRecord::Fixture::FixtureError) do
+      connection.insert_fixtures_set('entries' => [ { 'title' => 'E1' }, { 'title' => 'E2', 'bogus' => 1 } ])
+    end
+    assert_equal 'table "entries" has no column named "bogus".', error.message
+    assert_equal 0, Entry.count
+  end
+
+  def test_insert_fixtures_set_defaults_only
+    connection.insert_fixtures_set('entries' => [ {}, { 'title' => 'E1' } ])
+    assert_equal [ 'unknown', 'unknown' ], Entry.order(:id).pluck(:status)
+  end
+
   def test_columns
     cols = ActiveRecord::Base.connection.columns("entries")
     assert cols.find { |col| col.name == "title" }
@@ -1048,6 +1048,196 @@ module SimpleTestMethods
     assert connection.active? # JDBC connection.isValid (if alive_sql not set)
   end
 
+  def test_execute_query_raw_batches
+    5.times { |i| Entry.create! :title => "batch #{i}" }
+    sql = 'SELECT title, rating FROM entries ORDER BY id'
+
+    batches = []
+    ActiveRecord::Base.connection.raw_connection.execute_query_raw(sql, :batch_size => 2) { |batch| batches << batch }
+    assert_equal [ 2, 2, 1 ], batches.map(&:size)
+    assert_equal [ 'batch 0', nil ], batches.first.first
+    assert_equal 'batch 4', batches.last.first.first
+  end
+
+  def test_execute_query_raw_prefetched_batches
+    5.times { |i| Entry.create! :title => "batch #{i}" }
+    sql = 'SELECT title FROM entries ORDER BY id'
+    connection = ActiveRecord::Base.connection.raw_connection
+
+    batches = []
+    connection.execute_query_raw(sql, :batch_size => 2, :prefetch => true) { |batch| batches << batch.map(&:first) }
+    assert_equal [ [ 'batch 0', 'batch 1' ], [ 'batch 2', 'batch 3' ], [ 'batch 4' ] ], batches
+
+    batches = []
+    connection.execute_query_raw(sql, :batch_size => 2, :prefetch => true) { |batch| batches << batch; break }
+    assert_equal 1, batches.size # statement closed on break
+    assert_equal 5, connection.execute_query_raw(sql).size
+  end
+
+  def test_exec_query_each
+    3.times { |i| Entry.create! :title => "each #{i}" }
+    connection = ActiveRecord::Base.connection
+    sql = 'SELECT title FROM entries ORDER BY id'
+
+    titles = []
+    connection.exec_query_each(sql, 'SQL', [], :fetch_size => 2) { |row| titles << row.values.first }
+    assert_equal [ 'each 0', 'each 1', 'each 2' ], titles
+
+    enum = connection.exec_query_each(sql)
+    assert_kind_of Enumerator, enum
+    assert_equal [ 'each 0' ], enum.first(1).map { |row| row.values.first }
+
+    connection.exec_query_each(sql) { break } # statement closed on break
+    assert_equal 3, Entry.count
+  end
+
+  def test_query_string_values
+    titles = [ 'plain', 'čeština', 'テスト' ]
+    titles.each { |title| Entry.create! :title => title }
+    Entry.create! :title => nil
+    connection = ActiveRecord::Base.connection
+
+    result = connection.exec_query 'SELECT title FROM entries ORDER BY id'
+    values = result.rows.map(&:first)
+    assert_equal titles + [ nil ], values
+    values.compact.each { |value| assert_equal Encoding::UTF_8, value.encoding }
+
+    values = []
+    connection.raw_connection.execute_query_raw('SELECT title FROM entries ORDER BY id') { |title| values << title }
+    assert_equal titles + [ nil ], values
+  end
+
+  def test_binds_with_shared_types
+    Entry.create! :title => 'first', :rating => 1
+    Entry.create! :title => '2', :rating => 2
+    connection = ActiveRecord::Base.connection
+
+    string = ActiveRecord::Type::String.new
+    [ 'first', '2' ].each do |title|
+      binds = [ ActiveRecord::Relation::QueryAttribute.new('title', title, string) ]
+      assert_equal [ [ title ] ], connection.exec_query('SELECT title FROM entries WHERE title = ?', 'SQL', binds).rows
+    end
+
+    value = ActiveModel::Type::Value.new # no SQL type - resolved from the bound value
+    binds = [ ActiveRecord::Relation::QueryAttribute.new('title', 'first', value) ]
+    assert_equal 1, connection.exec_query('SELECT rating FROM entries WHERE title = ?', 'SQL', binds).rows.size
+    binds = [ ActiveRecord::Relation::QueryAttribute.new('rating', 2, value) ]
+    assert_equal [ [ '2' ] ], connection.exec_query('SELECT title FROM entries WHERE rating = ?', 'SQL', binds).rows
+  end
+
+  def test_exec_batch
+    connection = ActiveRecord::Base.connection
+    type = ActiveRecord::Type::String.new
+    binds_list = (1..5).map do |i|
+      [ ActiveRecord::Relation::QueryAttribute.new('title', "batch #{i}", type) ]
+    end
+    sql = "INSERT INTO entries (title) VALUES (?)"
+
+    counts = connection.exec_batch(sql, 'SQL', binds_list, :batch_size => 2)
+    assert_equal 5, counts.size
+    counts.each { |count| assert [ 1, nil ].include?(count), "unexpected update count: #{count.inspect}" }
+    assert_equal (1..5).map { |i| "batch #{i}" }, Entry.order(:id).pluck(:title)
+
+    assert_equal [], connection.exec_batch(sql, 'SQL', [])
+  end
+
+  def test_exec_batch_failure
+    connection = ActiveRecord::Base.connection
+    int = ActiveRecord::Type::Integer.new; str = ActiveRecord::Type::String.new
+    binds_list = [ 1, 2, 2, 3 ].map do |id|
+      [ ActiveRecord::Relation::QueryAttribute.new('id', id, int),
+        ActiveRecord::Relation::QueryAttribute.new('title', "batch #{id}", str) ]
+    end
+
+    error = assert_raise(ActiveRecord::StatementInvalid) do
+      connection.exec_batch "INSERT INTO entries (id, title) VALUES (?, ?)", 'SQL', binds_list
+    end
+    assert_match(/batch failed at row \d of 4/, error.message)
+  end
+
+  def test_insert_batch
+    rows = (1..3).map { |i| { 'title' => "row #{i}", 'rating' => i } }
+    rows << { 'title' => 'no rating' }
+    assert_equal 4, ActiveRecord::Base.connection.insert_batch('entries', rows)
+
+    assert_equal [ [ 'row 1', 1 ], [ 'row 2', 2 ], [ 'row 3', 3 ], [ 'no rating', nil ] ],
+      Entry.order(:id).pluck(:title, :rating).map { |title, rating| [ title, rating && rating.to_i ] }
+  end
+
+  def test_insert_batch_defaults_only
+    assert_equal 3, ActiveRecord::Base.connection.insert_batch('entries', [ {}, { 'title' => 'titled' }, {} ])
+    assert_equal [ nil, 'titled', nil ], Entry.order(:id).pluck(:title)
+  end
+
+  def test_insert_returns_primary_key
+    connection = ActiveRecord::Base.connection
+    id1 = connection.insert("INSERT INTO entries (title) VALUES ('pk 1')", 'SQL', 'id')
+    id2 = connection.insert("INSERT INTO entries (title) VALUES ('pk 2')", 'SQL', 'id')
+    assert_kind_of Integer, id1
+    assert_equal id1 + 1, id2
+    assert_equal 'pk 2', Entry.find(id2).title
+
+    entry = Entry.create! :title => 'pk 3'
+    assert_equal 'pk 3', Entry.find(entry.id).title
+  end
+
+  def test_exec_multi
+    connection = ActiveRecord::Base.connection
+    counts = connection.exec_multi([
+      "INSERT INTO entries (title, rating) VALUES ('multi 1', 1)",
+      "INSERT INTO entries (title, rating) VALUES ('multi 2', 2)"
+    ])
+    assert_equal [ 1, 1 ], counts
+
+    results = connection.exec_multi([
+      "SELECT title FROM entries WHERE rating = 1",
+      "UPDATE entries SET rating = 3 WHERE rating = 2",
+      "SELECT title FROM entries WHERE rating = 3"
+    ])
+    assert_equal 3, results.size
+    assert_equal [ [ 'multi 1' ] ], results[0].rows
+    assert_equal 1, results[1]
+    assert_equal [ [ 'multi 2' ] ], results[2].rows
+  end
+
+  def test_exec_query_async
+    Entry.create! :title => 'async 1', :rating => 1
+    Entry.create! :title => 'async 2', :rating => 2
+    connection = ActiveRecord::Base.connection
+
+    future1 = connection.exec_query_async("SELECT title FROM entries WHERE rating = 1")
+    future2 = connection.exec_query_async("SELECT title FROM entries WHERE rating = 2")
+    assert_equal [ [ 'async 1' ] ], future1.value.rows
+    assert_equal [ [ 'async 2' ] ], future2.value.rows
+    assert future1.complete?
+
+    future = connection.exec_query_async("SELECT * FROM a_missing_table")
+    assert_raise(ActiveRecord::StatementInvalid) { future.value }
+  end
+
+  def test_exec_query_async_more_queries_than_pooled_connections
+    Entry.create! :title => 'async', :rating => 1
+    connection = ActiveRecord::Base.connection
+
+    futures = ( connection.pool.size * 3 ).times.map do
+      connection.exec_query_async("SELECT title FROM entries WHERE rating = 1")
+    end
+    futures.each { |future| assert_equal [ [ 'async' ] ], future.value.rows }
+  end
+
+  def test_exec_query_async_without_available_connections
+    Entry.create! :title => 'async', :rating => 1
+    connection = ActiveRecord::Base.connection
+    pool = connection.pool
+    others = ( pool.size - 1 ).times.map { pool.checkout }
+
+    future = connection.exec_query_async("SELECT title FROM entries WHERE rating = 1")
+    assert future.complete? # executed right away (on this connection)
+    assert_equal [ [ 'async' ] ], future.value.rows
+  ensure
+    others.each { |other| pool.checkin(other) } if others
+  end
+
   def test_query_cache
     user_1 = User.create! :login => 'query_cache_1'
     user_2 = User.create! :login => 'query_cache_2'